@@ -1,6 +1,9 @@
 package com.studentrentals.model.booking;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class Booking {
     private final String bookingId;
@@ -10,18 +13,29 @@ public class Booking {
 
     private final LocalDate startDate;
     private final LocalDate endDate;
+    private final Instant requestedAt; // when the student asked; pending requests expire relative to it
 
-    private BookingStatus status;
+    // Immutable (status, version) pair; every transition bumps the version via compare-and-set
+    private record State(BookingStatus status, long version) {}
+
+    private final AtomicReference<State> state;
 
     public Booking(String bookingId, String roomId, String ownerId, String studentId,
                    LocalDate startDate, LocalDate endDate, BookingStatus status) {
+        // millisecond precision, as ModelCodec stores it, so a restored booking equals the live one
+        this(bookingId, roomId, ownerId, studentId, startDate, endDate, status, Instant.now().truncatedTo(ChronoUnit.MILLIS));
+    }
+
+    public Booking(String bookingId, String roomId, String ownerId, String studentId,
+                   LocalDate startDate, LocalDate endDate, BookingStatus status, Instant requestedAt) {
         this.bookingId = bookingId;
         this.roomId = roomId;
         this.ownerId = ownerId;
         this.studentId = studentId;
         this.startDate = startDate;
         this.endDate = endDate;
-        this.status = status;
+        this.requestedAt = requestedAt;
+        this.state = new AtomicReference<>(new State(status, 0));
     }
 
     public String getBookingId() { return bookingId; }
@@ -30,8 +44,18 @@ public class Booking {
     public String getStudentId() { return studentId; }
     public LocalDate getStartDate() { return startDate; }
     public LocalDate getEndDate() { return endDate; }
-    public BookingStatus getStatus() { return status; }
-    public void setStatus(BookingStatus status) { this.status = status; }
+    public Instant getRequestedAt() { return requestedAt; }
+    public BookingStatus getStatus() { return state.get().status(); }
+    public long getVersion() { return state.get().version(); }
+
+    // Moves expected -> next atomically; false if the booking is no longer in the expected status
+    public boolean compareAndSetStatus(BookingStatus expected, BookingStatus next) {
+        while (true) {
+            State current = state.get();
+            if (current.status() != expected) return false;
+            if (state.compareAndSet(current, new State(next, current.version() + 1))) return true;
+        }
+    }
 
     // true if [aStart, aEnd] overlaps [bStart, bEnd]
     public boolean overlaps(LocalDate otherStart, LocalDate otherEnd) {
@@ -47,7 +71,7 @@ public class Booking {
                 ", studentId='" + studentId + '\'' +
                 ", start=" + startDate +
                 ", end=" + endDate +
-                ", status=" + status +
+                ", status=" + getStatus() +
                 '}';
     }
 }
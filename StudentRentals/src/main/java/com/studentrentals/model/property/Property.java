@@ -2,7 +2,6 @@ package com.studentrentals.model.property;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 public class Property {
     private final String propertyId;
@@ -11,7 +10,8 @@ public class Property {
     private String city;
     private String description;
 
-    private final List<Room> rooms = new ArrayList<>();
+    // Rooms themselves live in RoomRepository
+    private final List<String> roomIds = new ArrayList<>();
 
     public Property(String propertyId, String ownerId, String address, String city, String description) {
         this.propertyId = propertyId;
@@ -26,25 +26,22 @@ public class Property {
     public String getAddress() { return address; }
     public String getCity() { return city; }
     public String getDescription() { return description; }
-    public List<Room> getRooms() { return new ArrayList<>(rooms); }
+    public List<String> getRoomIds() { return new ArrayList<>(roomIds); }
 
     public void setAddress(String address) { this.address = address; }
     public void setCity(String city) { this.city = city; }
     public void setDescription(String description) { this.description = description; }
 
-    public void addRoom(Room room) {
-        rooms.add(room);
+    public void addRoom(String roomId) {
+        roomIds.add(roomId);
     }
 
-    public Optional<Room> findRoom(String roomId) {
-        for (Room r : rooms) {
-            if (r.getRoomId().equals(roomId)) return Optional.of(r);
-        }
-        return Optional.empty();
+    public boolean hasRoom(String roomId) {
+        return roomIds.contains(roomId);
     }
 
     public boolean removeRoom(String roomId) {
-        return rooms.removeIf(r -> r.getRoomId().equals(roomId));
+        return roomIds.remove(roomId);
     }
 
     @Override
@@ -53,7 +50,7 @@ public class Property {
                 "id='" + propertyId + '\'' +
                 ", address='" + address + '\'' +
                 ", city='" + city + '\'' +
-                ", rooms=" + rooms.size() +
+                ", rooms=" + roomIds.size() +
                 '}';
     }
 }
@@ -0,0 +1,75 @@
+package com.studentrentals.persistence;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Decoder for BinaryWriter output. Reads straight from any ByteBuffer (heap, direct or mapped);
+// must be created with the same dictionary setting the data was written with.
+public class BinaryReader {
+
+    private final ByteBuffer buffer;
+    private final List<String> symbols; // null = no dictionary
+    private byte[] scratch = new byte[256];
+
+    public BinaryReader(ByteBuffer buffer, boolean dictionary) {
+        this.buffer = buffer;
+        this.symbols = dictionary ? new ArrayList<>() : null;
+    }
+
+    public byte getByte() {
+        return buffer.get();
+    }
+
+    public int getInt() {
+        return buffer.getInt();
+    }
+
+    public long getLong() {
+        return buffer.getLong();
+    }
+
+    public double getDouble() {
+        return buffer.getDouble();
+    }
+
+    public int getVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+
+    public LocalDate getDate() {
+        return LocalDate.ofEpochDay(buffer.getInt());
+    }
+
+    // Bulk-copies into one reused scratch array, so decoding allocates only the String
+    public String getString() {
+        int length = getVarInt();
+        if (length < 0 || length > buffer.remaining()) throw new IllegalStateException("Malformed string length " + length);
+        if (scratch.length < length) scratch = new byte[Math.max(length, scratch.length * 2)];
+        buffer.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    public String getSymbol() {
+        int tag = getVarInt();
+        if (tag == 0) {
+            String literal = getString();
+            if (symbols != null) symbols.add(literal);
+            return literal;
+        }
+        if (symbols == null || tag > symbols.size()) throw new IllegalStateException("Unknown symbol reference " + tag);
+        return symbols.get(tag - 1);
+    }
+
+    public boolean hasRemaining() {
+        return buffer.hasRemaining();
+    }
+}
@@ -0,0 +1,105 @@
+package com.studentrentals.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+// Growable ByteBuffer encoder. Counts and lengths are unsigned varints, dates epoch-day ints.
+// Symbols (cities, owner ids, amenities...) are written as a varint tag: 0 = literal follows,
+// n > 0 = the (n-1)th literal seen so far. Without a dictionary every symbol is a literal, so each
+// encoded record stands alone (journal); with one, repeats cost a byte or two (snapshot).
+public class BinaryWriter {
+
+    private ByteBuffer buffer;
+    private final Map<String, Integer> symbols; // null = no dictionary
+
+    public BinaryWriter(int initialCapacity, boolean dictionary) {
+        this.buffer = ByteBuffer.allocate(Math.max(16, initialCapacity));
+        this.symbols = dictionary ? new HashMap<>() : null;
+    }
+
+    public BinaryWriter putByte(int value) {
+        ensure(1).put((byte) value);
+        return this;
+    }
+
+    public BinaryWriter putInt(int value) {
+        ensure(4).putInt(value);
+        return this;
+    }
+
+    public BinaryWriter putLong(long value) {
+        ensure(8).putLong(value);
+        return this;
+    }
+
+    public BinaryWriter putDouble(double value) {
+        ensure(8).putDouble(value);
+        return this;
+    }
+
+    public BinaryWriter putVarInt(int value) {
+        if (value < 0) throw new IllegalArgumentException("Negative varint: " + value);
+        ensure(5);
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+        return this;
+    }
+
+    public BinaryWriter putDate(LocalDate date) {
+        return putInt((int) date.toEpochDay());
+    }
+
+    // The format has no null; callers store "" for absent text
+    public BinaryWriter putString(String s) {
+        if (s == null) throw new IllegalArgumentException("Null string");
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        putVarInt(bytes.length);
+        ensure(bytes.length).put(bytes);
+        return this;
+    }
+
+    public BinaryWriter putSymbol(String s) {
+        if (symbols != null) {
+            Integer id = symbols.get(s);
+            if (id != null) return putVarInt(id + 1);
+            symbols.put(s, symbols.size());
+        }
+        putVarInt(0);
+        return putString(s);
+    }
+
+    public int size() {
+        return buffer.position();
+    }
+
+    public byte[] toByteArray() {
+        byte[] out = new byte[buffer.position()];
+        System.arraycopy(buffer.array(), 0, out, 0, out.length);
+        return out;
+    }
+
+    // Writes everything buffered so far and empties the buffer; the dictionary carries on
+    public void drainTo(WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    private ByteBuffer ensure(int bytes) {
+        if (buffer.remaining() < bytes) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            buffer.flip();
+            bigger.put(buffer);
+            buffer = bigger;
+        }
+        return buffer;
+    }
+}
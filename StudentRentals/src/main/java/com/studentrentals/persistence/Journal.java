@@ -0,0 +1,202 @@
+package com.studentrentals.persistence;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+// Append-only redo log of binary records: [int length][byte type][payload][int crc32]. Services apply a
+// change in memory and then log it, so this is not write-ahead: a crash can drop a change whose caller
+// was never answered, but never one that was acknowledged.
+// append() returns once the record is on disk, but concurrent appenders share fsyncs (group commit):
+// whoever finds no flush in progress writes and forces everything queued so far, while the others wait.
+// enqueue() + awaitDurable() split that in two, so a caller can fix a record's order in the log while
+// holding its own locks and wait for the fsync after releasing them.
+public class Journal implements AutoCloseable {
+
+    private static final int MAGIC = 0x53524A4C; // "SRJL"
+    private static final int VERSION = 3; // 2: payloads in ModelCodec format; 3: bookings carry their request time
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+
+    public interface RecordHandler {
+        void onRecord(byte type, byte[] payload) throws IOException;
+    }
+
+    private final FileChannel channel;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    private final List<ByteBuffer> pending = new ArrayList<>();
+    private long appendedSeq;
+    private long durableSeq;
+    private long durableEnd; // end of the last fully written batch; the file can be longer mid-flush
+    private boolean flushing;
+    private IOException failure;
+
+    private Journal(FileChannel channel, long end) {
+        this.channel = channel;
+        this.durableEnd = end;
+    }
+
+    public static Journal open(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip();
+            while (header.hasRemaining()) channel.write(header, header.position());
+            channel.force(true);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) { }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                channel.close();
+                throw new IOException("Not a StudentRentals journal (or unsupported version): " + path);
+            }
+        }
+        channel.position(channel.size());
+        return new Journal(channel, channel.size());
+    }
+
+    // Reads every intact record from fromPosition on (0 = start of log). A torn or corrupt tail, left by a
+    // crash mid-write, is truncated. Returns the end position, where appends continue.
+    public long replay(long fromPosition, RecordHandler handler) throws IOException {
+        long position = Math.max(fromPosition, HEADER_BYTES);
+        channel.position(position);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+        CRC32 crc = new CRC32();
+
+        while (true) {
+            int length;
+            byte type;
+            byte[] payload;
+            try {
+                length = in.readInt();
+                if (length < 0 || length > MAX_RECORD_BYTES) break;
+                type = in.readByte();
+                payload = new byte[length];
+                in.readFully(payload);
+                int expected = in.readInt();
+                crc.reset();
+                crc.update(type);
+                crc.update(payload);
+                if ((int) crc.getValue() != expected) break;
+            } catch (EOFException eof) {
+                break;
+            }
+            handler.onRecord(type, payload);
+            position += 4 + 1 + length + 4;
+        }
+
+        if (channel.size() > position) channel.truncate(position);
+        channel.position(channel.size());
+        lock.lock();
+        try {
+            durableEnd = position;
+        } finally {
+            lock.unlock();
+        }
+        return position;
+    }
+
+    // Blocks until the record is durable; group-commits with concurrent callers
+    public void append(byte type, byte[] payload) {
+        awaitDurable(enqueue(type, payload));
+    }
+
+    // Queues the record behind everything appended so far without waiting; returns its sequence number
+    public long enqueue(byte type, byte[] payload) {
+        ByteBuffer frame = frame(type, payload);
+        lock.lock();
+        try {
+            pending.add(frame);
+            return ++appendedSeq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Blocks until the record with this sequence number (and every one before it) is on disk
+    public void awaitDurable(long seq) {
+        lock.lock();
+        try {
+            while (durableSeq < seq) {
+                if (failure != null) throw new UncheckedIOException("Journal write failed", failure);
+                if (flushing) {
+                    flushed.awaitUninterruptibly();
+                    continue;
+                }
+                flushBatch();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Byte offset of the end of the durable log (snapshots record this to know where the tail starts).
+    // Always a record boundary: a batch being written counts only once all of it is on disk.
+    public long position() {
+        lock.lock();
+        try {
+            return durableEnd;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called with the lock held; drops it for the IO so other appenders can queue up behind this batch
+    private void flushBatch() {
+        flushing = true;
+        ByteBuffer[] batch = pending.toArray(new ByteBuffer[0]);
+        pending.clear();
+        long batchSeq = appendedSeq;
+        long batchBytes = 0;
+        for (ByteBuffer b : batch) batchBytes += b.remaining();
+
+        lock.unlock();
+        IOException error = null;
+        try {
+            long remaining = batchBytes;
+            while (remaining > 0) remaining -= channel.write(batch);
+            channel.force(false);
+        } catch (IOException e) {
+            error = e;
+        } finally {
+            lock.lock();
+        }
+
+        flushing = false;
+        if (error != null) failure = error;
+        else {
+            durableSeq = batchSeq;
+            durableEnd += batchBytes;
+        }
+        flushed.signalAll();
+    }
+
+    private ByteBuffer frame(byte type, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload);
+        ByteBuffer frame = ByteBuffer.allocate(4 + 1 + payload.length + 4);
+        frame.putInt(payload.length).put(type).put(payload).putInt((int) crc.getValue());
+        return frame.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,73 @@
+package com.studentrentals.persistence;
+
+import com.studentrentals.model.booking.Booking;
+import com.studentrentals.model.property.Property;
+import com.studentrentals.model.property.Room;
+import com.studentrentals.model.user.User;
+
+import java.util.function.Consumer;
+
+// Encodes each mutation with ModelCodec and appends it to the journal. Records are encoded without a
+// string dictionary so each one decodes on its own (replay may start anywhere after a snapshot).
+public class JournalMutationLog implements MutationLog {
+
+    private final Journal journal;
+
+    public JournalMutationLog(Journal journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    public void userSaved(User user) {
+        append(RecordTypes.USER, out -> ModelCodec.writeUser(out, user));
+    }
+
+    @Override
+    public void propertySaved(Property property) {
+        append(RecordTypes.PROPERTY, out -> ModelCodec.writeProperty(out, property));
+    }
+
+    @Override
+    public void propertyDeleted(String ownerId, String propertyId) {
+        append(RecordTypes.PROPERTY_DELETED, out -> out.putString(ownerId).putString(propertyId));
+    }
+
+    @Override
+    public void roomSaved(Room room) {
+        append(RecordTypes.ROOM, out -> ModelCodec.writeRoom(out, room));
+    }
+
+    @Override
+    public void roomDeleted(String propertyId, String roomId) {
+        append(RecordTypes.ROOM_DELETED, out -> out.putString(propertyId).putString(roomId));
+    }
+
+    @Override
+    public void bookingSaved(Booking booking) {
+        queueBookingSaved(booking).await();
+    }
+
+    @Override
+    public Queued queueBookingSaved(Booking booking) {
+        long seq = journal.enqueue(RecordTypes.BOOKING, encode(out -> ModelCodec.writeBooking(out, booking)));
+        return () -> journal.awaitDurable(seq);
+    }
+
+    @Override
+    public void bookingStatusChanged(Booking booking) {
+        append(RecordTypes.BOOKING_STATUS, out -> {
+            out.putString(booking.getBookingId());
+            ModelCodec.writeStatus(out, booking.getStatus());
+        });
+    }
+
+    private void append(byte type, Consumer<BinaryWriter> encoder) {
+        journal.append(type, encode(encoder));
+    }
+
+    private static byte[] encode(Consumer<BinaryWriter> encoder) {
+        BinaryWriter out = new BinaryWriter(128, false);
+        encoder.accept(out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,123 @@
+package com.studentrentals.persistence;
+
+import com.studentrentals.model.booking.Booking;
+import com.studentrentals.model.booking.BookingStatus;
+import com.studentrentals.model.property.Property;
+import com.studentrentals.model.property.Room;
+import com.studentrentals.repository.BookingRepository;
+import com.studentrentals.repository.PropertyRepository;
+import com.studentrentals.repository.RoomRepository;
+import com.studentrentals.repository.UserRepository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// Rebuilds repository state (and with it every secondary index) by re-applying journal records
+// through the normal repository methods. Records are upserts, so replaying over existing state is safe.
+public class JournalReplayer {
+
+    private final UserRepository userRepository;
+    private final PropertyRepository propertyRepository;
+    private final RoomRepository roomRepository;
+    private final BookingRepository bookingRepository;
+
+    public JournalReplayer(UserRepository userRepository, PropertyRepository propertyRepository,
+                           RoomRepository roomRepository, BookingRepository bookingRepository) {
+        this.userRepository = userRepository;
+        this.propertyRepository = propertyRepository;
+        this.roomRepository = roomRepository;
+        this.bookingRepository = bookingRepository;
+    }
+
+    // Applies records from fromPosition (0 = whole log) and returns the journal end position
+    public long replay(Journal journal, long fromPosition) throws IOException {
+        return journal.replay(fromPosition, this::apply);
+    }
+
+    private void apply(byte type, byte[] payload) throws IOException {
+        BinaryReader in = new BinaryReader(ByteBuffer.wrap(payload), false);
+        try {
+            switch (type) {
+                case RecordTypes.USER -> applyUser(in);
+                case RecordTypes.PROPERTY -> applyProperty(in);
+                case RecordTypes.PROPERTY_DELETED -> applyPropertyDeleted(in);
+                case RecordTypes.ROOM -> applyRoom(in);
+                case RecordTypes.ROOM_DELETED -> applyRoomDeleted(in);
+                case RecordTypes.BOOKING -> applyBooking(in);
+                case RecordTypes.BOOKING_STATUS -> applyBookingStatus(in);
+                default -> throw new IOException("Unknown journal record type " + type);
+            }
+        } catch (RuntimeException e) {
+            // BufferUnderflowException etc.: the CRC matched, so this is a codec mismatch, not a torn write
+            throw new IOException("Undecodable journal record of type " + type, e);
+        }
+    }
+
+    private void applyUser(BinaryReader in) {
+        userRepository.save(ModelCodec.readUser(in));
+    }
+
+    private void applyProperty(BinaryReader in) {
+        Property decoded = ModelCodec.readProperty(in);
+        Property existing = propertyRepository.findById(decoded.getPropertyId()).orElse(null);
+        if (existing == null) {
+            propertyRepository.save(decoded);
+        } else {
+            existing.setAddress(decoded.getAddress());
+            existing.setCity(decoded.getCity());
+            existing.setDescription(decoded.getDescription());
+            propertyRepository.update(existing);
+        }
+    }
+
+    private void applyPropertyDeleted(BinaryReader in) {
+        String ownerId = in.getString();
+        String propertyId = in.getString();
+        propertyRepository.findById(propertyId).ifPresent(p -> {
+            for (String roomId : p.getRoomIds()) roomRepository.delete(p.getCity(), roomId);
+        });
+        propertyRepository.delete(ownerId, propertyId);
+    }
+
+    private void applyRoom(BinaryReader in) {
+        Room decoded = ModelCodec.readRoom(in);
+        Property property = propertyRepository.findById(decoded.getPropertyId()).orElse(null);
+        if (property == null) return; // property deleted later in the log
+
+        if (!property.hasRoom(decoded.getRoomId())) {
+            property.addRoom(decoded.getRoomId());
+            roomRepository.save(property.getCity(), decoded);
+        } else {
+            roomRepository.update(property.getCity(), decoded);
+        }
+    }
+
+    private void applyRoomDeleted(BinaryReader in) {
+        String propertyId = in.getString();
+        String roomId = in.getString();
+        propertyRepository.findById(propertyId).ifPresent(p -> {
+            if (p.removeRoom(roomId)) roomRepository.delete(p.getCity(), roomId);
+        });
+    }
+
+    private void applyBooking(BinaryReader in) {
+        Booking booking = ModelCodec.readBooking(in);
+        if (bookingRepository.findById(booking.getBookingId()).isPresent()) return;
+        bookingRepository.save(booking);
+        if (booking.getStatus() == BookingStatus.ACCEPTED) {
+            roomRepository.markBooked(booking.getRoomId(), booking.getStartDate(), booking.getEndDate());
+        }
+    }
+
+    private void applyBookingStatus(BinaryReader in) {
+        String bookingId = in.getString();
+        BookingStatus status = ModelCodec.readStatus(in);
+
+        Booking booking = bookingRepository.findById(bookingId).orElse(null);
+        if (booking == null || booking.getStatus() == status) return;
+        bookingRepository.transition(booking, booking.getStatus(), status);
+        if (status == BookingStatus.ACCEPTED) {
+            roomRepository.markBooked(booking.getRoomId(), booking.getStartDate(), booking.getEndDate());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.studentrentals.persistence;
+
+import com.studentrentals.model.booking.Booking;
+import com.studentrentals.model.booking.BookingStatus;
+import com.studentrentals.model.property.Property;
+import com.studentrentals.model.property.Room;
+import com.studentrentals.model.property.RoomType;
+import com.studentrentals.model.user.Homeowner;
+import com.studentrentals.model.user.Student;
+import com.studentrentals.model.user.User;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Binary encoding of the domain objects, shared by the journal and the snapshot. Unique ids are plain
+// strings; values that repeat across objects (cities, owner/property/room ids, amenities, universities)
+// are symbols. Enums are ordinals, so only ever append constants. Bump VERSION on any layout change.
+public final class ModelCodec {
+    private ModelCodec() {}
+
+    public static final int VERSION = 2; // 2: bookings carry their request time
+
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+
+    public static void writeUser(BinaryWriter out, User user) {
+        if (user instanceof Student s) {
+            out.putByte(RecordTypes.ROLE_STUDENT);
+            writeUserFields(out, user);
+            out.putSymbol(s.getUniversity());
+            out.putString(s.getStudentId());
+        } else if (user instanceof Homeowner h) {
+            out.putByte(RecordTypes.ROLE_HOMEOWNER);
+            writeUserFields(out, user);
+            out.putString(h.getContactNumber());
+        } else {
+            throw new IllegalArgumentException("Unknown user type: " + user.getRole());
+        }
+    }
+
+    public static User readUser(BinaryReader in) {
+        byte role = in.getByte();
+        String userId = in.getString();
+        String name = in.getString();
+        String email = in.getString();
+        String hash = in.getString();
+        if (role == RecordTypes.ROLE_STUDENT) {
+            String university = in.getSymbol();
+            return new Student(userId, name, email, hash, university, in.getString());
+        }
+        if (role == RecordTypes.ROLE_HOMEOWNER) {
+            return new Homeowner(userId, name, email, hash, in.getString());
+        }
+        throw new IllegalStateException("Unknown user role " + role);
+    }
+
+    public static void writeProperty(BinaryWriter out, Property property) {
+        out.putString(property.getPropertyId());
+        out.putSymbol(property.getOwnerId());
+        out.putString(property.getAddress());
+        out.putSymbol(property.getCity());
+        out.putString(property.getDescription());
+    }
+
+    // Rooms are encoded separately
+    public static Property readProperty(BinaryReader in) {
+        String propertyId = in.getString();
+        String ownerId = in.getSymbol();
+        String address = in.getString();
+        String city = in.getSymbol();
+        return new Property(propertyId, ownerId, address, city, in.getString());
+    }
+
+    public static void writeRoom(BinaryWriter out, Room room) {
+        out.putString(room.getRoomId());
+        out.putSymbol(room.getPropertyId());
+        out.putSymbol(room.getOwnerId());
+        out.putSymbol(room.getCity());
+        out.putByte(room.getType().ordinal());
+        out.putDouble(room.getMonthlyRent());
+        List<String> amenities = room.getAmenities();
+        out.putVarInt(amenities.size());
+        for (String a : amenities) out.putSymbol(a);
+        out.putDate(room.getAvailableFrom());
+        out.putDate(room.getAvailableTo());
+    }
+
+    public static Room readRoom(BinaryReader in) {
+        String roomId = in.getString();
+        String propertyId = in.getSymbol();
+        String ownerId = in.getSymbol();
+        String city = in.getSymbol();
+        RoomType type = ROOM_TYPES[ordinal(in.getByte(), ROOM_TYPES.length)];
+        double rent = in.getDouble();
+        int count = in.getVarInt();
+        List<String> amenities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) amenities.add(in.getSymbol());
+        return new Room(roomId, propertyId, ownerId, city, type, rent, amenities, in.getDate(), in.getDate());
+    }
+
+    public static void writeBooking(BinaryWriter out, Booking booking) {
+        out.putString(booking.getBookingId());
+        out.putSymbol(booking.getRoomId());
+        out.putSymbol(booking.getOwnerId());
+        out.putSymbol(booking.getStudentId());
+        out.putDate(booking.getStartDate());
+        out.putDate(booking.getEndDate());
+        writeStatus(out, booking.getStatus());
+        out.putLong(booking.getRequestedAt().toEpochMilli());
+    }
+
+    public static Booking readBooking(BinaryReader in) {
+        String bookingId = in.getString();
+        String roomId = in.getSymbol();
+        String ownerId = in.getSymbol();
+        String studentId = in.getSymbol();
+        LocalDate start = in.getDate();
+        LocalDate end = in.getDate();
+        BookingStatus status = readStatus(in);
+        return new Booking(bookingId, roomId, ownerId, studentId, start, end, status, Instant.ofEpochMilli(in.getLong()));
+    }
+
+    public static void writeStatus(BinaryWriter out, BookingStatus status) {
+        out.putByte(status.ordinal());
+    }
+
+    public static BookingStatus readStatus(BinaryReader in) {
+        return STATUSES[ordinal(in.getByte(), STATUSES.length)];
+    }
+
+    private static int ordinal(byte value, int constants) {
+        if (value < 0 || value >= constants) throw new IllegalStateException("Unknown enum ordinal " + value);
+        return value;
+    }
+
+    private static void writeUserFields(BinaryWriter out, User user) {
+        out.putString(user.getUserId());
+        out.putString(user.getName());
+        out.putString(user.getEmail());
+        out.putString(user.getPasswordHash());
+    }
+}
@@ -0,0 +1,36 @@
+package com.studentrentals.persistence;
+
+import com.studentrentals.model.booking.Booking;
+import com.studentrentals.model.property.Property;
+import com.studentrentals.model.property.Room;
+import com.studentrentals.model.user.User;
+
+// Services report every state change here after applying it (new bookings: just before publishing it)
+// and before returning to the caller.
+// Saved records carry the entity's full current state, so replay is an upsert.
+public interface MutationLog {
+
+    MutationLog NONE = new MutationLog() {};
+
+    // A record whose place in the log is fixed; await() returns once it is durable
+    interface Queued {
+        Queued DONE = () -> {};
+
+        void await();
+    }
+
+    // Orders the new booking's record in the log before it is published, so no status change can be
+    // logged ahead of it; callers queue under the room lock, save, and await after unlocking
+    default Queued queueBookingSaved(Booking booking) {
+        bookingSaved(booking);
+        return Queued.DONE;
+    }
+
+    default void userSaved(User user) {}
+    default void propertySaved(Property property) {}
+    default void propertyDeleted(String ownerId, String propertyId) {}
+    default void roomSaved(Room room) {}
+    default void roomDeleted(String propertyId, String roomId) {}
+    default void bookingSaved(Booking booking) {}
+    default void bookingStatusChanged(Booking booking) {}
+}
@@ -0,0 +1,17 @@
+package com.studentrentals.persistence;
+
+// Journal record type tags; never renumber, old logs must keep replaying
+final class RecordTypes {
+    private RecordTypes() {}
+
+    static final byte USER = 1;
+    static final byte PROPERTY = 2;
+    static final byte PROPERTY_DELETED = 3;
+    static final byte ROOM = 4;
+    static final byte ROOM_DELETED = 5;
+    static final byte BOOKING = 6;
+    static final byte BOOKING_STATUS = 7;
+
+    static final byte ROLE_STUDENT = 1;
+    static final byte ROLE_HOMEOWNER = 2;
+}
@@ -0,0 +1,136 @@
+package com.studentrentals.persistence;
+
+import com.studentrentals.model.booking.Booking;
+import com.studentrentals.model.booking.BookingStatus;
+import com.studentrentals.model.property.Property;
+import com.studentrentals.model.property.Room;
+import com.studentrentals.model.user.User;
+import com.studentrentals.repository.BookingRepository;
+import com.studentrentals.repository.PropertyRepository;
+import com.studentrentals.repository.RoomRepository;
+import com.studentrentals.repository.UserRepository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Point-in-time image of all repositories plus the journal position it covers. At startup the file is
+// memory-mapped and decoded straight from the mapping, then only the journal tail after that position
+// is replayed. Layout: header (magic, version, codec version, journal position), then users, properties,
+// rooms and bookings, each a count followed by ModelCodec records sharing one string dictionary.
+public class SnapshotStore {
+
+    private static final int MAGIC = 0x5352534E; // "SRSN"
+    private static final int VERSION = 3;        // 2: ModelCodec records with a shared dictionary; 3: streamed bookings
+    private static final int HEADER_BYTES = 20;
+    private static final int FLUSH_BYTES = 1 << 16;
+
+    private final Path path;
+
+    public SnapshotStore(Path path) {
+        this.path = path;
+    }
+
+    public boolean exists() {
+        return Files.exists(path);
+    }
+
+    // Writes to a temp file and atomically swaps it in, so a crash never leaves a half-written snapshot.
+    // Read journalPosition *before* reading repository state: anything applied later is in the tail.
+    public void write(long journalPosition, UserRepository users, PropertyRepository properties,
+                      RoomRepository rooms, BookingRepository bookings) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        List<Property> allProperties = properties.findAll();
+        List<Room> allRooms = rooms.findAll();
+
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            BinaryWriter out = new BinaryWriter(FLUSH_BYTES * 2, true);
+            out.putInt(MAGIC).putInt(VERSION).putInt(ModelCodec.VERSION).putLong(journalPosition);
+
+            List<User> allUsers = users.findAll();
+            out.putVarInt(allUsers.size());
+            for (User u : allUsers) {
+                ModelCodec.writeUser(out, u);
+                if (out.size() >= FLUSH_BYTES) out.drainTo(ch);
+            }
+
+            out.putVarInt(allProperties.size());
+            for (Property p : allProperties) {
+                ModelCodec.writeProperty(out, p);
+                if (out.size() >= FLUSH_BYTES) out.drainTo(ch);
+            }
+
+            out.putVarInt(allRooms.size());
+            for (Room r : allRooms) {
+                ModelCodec.writeRoom(out, r);
+                if (out.size() >= FLUSH_BYTES) out.drainTo(ch);
+            }
+
+            // bookings may live on disk: stream them, and write the count last into a reserved slot
+            long countOffset = ch.position() + out.size();
+            out.putInt(0);
+            int[] written = {0};
+            IOException[] failure = {null};
+            bookings.forEach(b -> {
+                if (failure[0] != null) return;
+                ModelCodec.writeBooking(out, b);
+                written[0]++;
+                if (out.size() >= FLUSH_BYTES) {
+                    try {
+                        out.drainTo(ch);
+                    } catch (IOException e) {
+                        failure[0] = e;
+                    }
+                }
+            });
+            if (failure[0] != null) throw failure[0];
+            out.drainTo(ch);
+            ch.write(ByteBuffer.allocate(4).putInt(0, written[0]), countOffset);
+            ch.force(true);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Loads into empty repositories (rebuilding all indexes) and returns the journal position to replay from
+    public long load(UserRepository users, PropertyRepository properties, RoomRepository rooms,
+                     BookingRepository bookings) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            if (mapped.remaining() < HEADER_BYTES || mapped.getInt() != MAGIC || mapped.getInt() != VERSION
+                    || mapped.getInt() != ModelCodec.VERSION) {
+                throw new IOException("Not a StudentRentals snapshot (or unsupported version): " + path);
+            }
+            long journalPosition = mapped.getLong();
+            BinaryReader in = new BinaryReader(mapped, true);
+
+            for (int i = in.getVarInt(); i > 0; i--) users.save(ModelCodec.readUser(in));
+
+            for (int i = in.getVarInt(); i > 0; i--) properties.save(ModelCodec.readProperty(in));
+
+            for (int i = in.getVarInt(); i > 0; i--) {
+                Room room = ModelCodec.readRoom(in);
+                Property property = properties.findById(room.getPropertyId())
+                        .orElseThrow(() -> new IOException("Snapshot room without property: " + room.getRoomId()));
+                property.addRoom(room.getRoomId());
+                rooms.save(property.getCity(), room);
+            }
+
+            for (int i = in.getInt(); i > 0; i--) {
+                Booking b = ModelCodec.readBooking(in);
+                bookings.save(b);
+                if (b.getStatus() == BookingStatus.ACCEPTED) rooms.markBooked(b.getRoomId(), b.getStartDate(), b.getEndDate());
+            }
+            return journalPosition;
+        } catch (RuntimeException e) {
+            // BufferUnderflowException etc. from a truncated/corrupt file
+            throw new IOException("Corrupt snapshot: " + path, e);
+        }
+    }
+}
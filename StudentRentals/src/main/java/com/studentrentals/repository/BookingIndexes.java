@@ -0,0 +1,108 @@
+package com.studentrentals.repository;
+
+import com.studentrentals.model.booking.Booking;
+import com.studentrentals.model.booking.BookingStatus;
+import com.studentrentals.util.IntervalTree;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// On-heap secondary indexes shared by the booking repositories: booking ids per room/owner/student,
+// status partitions and ACCEPTED occupancy per room. Holds ids only, so it stays small even when the
+// bookings themselves live on disk. Maps are concurrent and each per-key container is guarded by its own monitor.
+class BookingIndexes {
+
+    private final Map<String, List<String>> bookingIdsByRoomId = new ConcurrentHashMap<>();
+    private final Map<String, List<String>> bookingIdsByOwnerId = new ConcurrentHashMap<>();
+    private final Map<String, List<String>> bookingIdsByStudentId = new ConcurrentHashMap<>();
+
+    // Status partitions: (owner, status) and (room, status) -> booking ids, in insertion order
+    private final Map<String, Map<BookingStatus, Set<String>>> bookingIdsByOwnerAndStatus = new ConcurrentHashMap<>();
+    private final Map<String, Map<BookingStatus, Set<String>>> bookingIdsByRoomAndStatus = new ConcurrentHashMap<>();
+
+    // Occupancy per room: ACCEPTED booking periods as epoch-day intervals
+    private final Map<String, IntervalTree> acceptedByRoomId = new ConcurrentHashMap<>();
+
+    void add(Booking booking) {
+        append(bookingIdsByRoomId, booking.getRoomId(), booking.getBookingId());
+        append(bookingIdsByOwnerId, booking.getOwnerId(), booking.getBookingId());
+        append(bookingIdsByStudentId, booking.getStudentId(), booking.getBookingId());
+        sync(booking);
+    }
+
+    // Brings partitions and occupancy in line with the booking's *current* status. Reading the status
+    // under each index's monitor keeps racing transitions from leaving a booking in a stale partition.
+    void sync(Booking booking) {
+        syncPartition(bookingIdsByOwnerAndStatus, booking.getOwnerId(), booking);
+        syncPartition(bookingIdsByRoomAndStatus, booking.getRoomId(), booking);
+        syncOccupancy(booking);
+    }
+
+    boolean hasAcceptedOverlap(String roomId, LocalDate start, LocalDate end) {
+        IntervalTree accepted = acceptedByRoomId.get(roomId);
+        if (accepted == null) return false;
+        synchronized (accepted) {
+            return accepted.anyOverlap((int) start.toEpochDay(), (int) end.toEpochDay());
+        }
+    }
+
+    List<String> idsByStudent(String studentId) {
+        return copy(bookingIdsByStudentId.get(studentId));
+    }
+
+    List<String> idsByOwner(String ownerId) {
+        return copy(bookingIdsByOwnerId.get(ownerId));
+    }
+
+    List<String> idsByOwnerAndStatus(String ownerId, BookingStatus status) {
+        return copyPartition(bookingIdsByOwnerAndStatus.get(ownerId), status);
+    }
+
+    List<String> idsByRoomAndStatus(String roomId, BookingStatus status) {
+        return copyPartition(bookingIdsByRoomAndStatus.get(roomId), status);
+    }
+
+    private void append(Map<String, List<String>> index, String key, String bookingId) {
+        List<String> ids = index.computeIfAbsent(key, k -> new ArrayList<>());
+        synchronized (ids) {
+            ids.add(bookingId);
+        }
+    }
+
+    // Empty trees/partitions are kept rather than removed, so a concurrent insert can't land in a detached one
+    private void syncOccupancy(Booking booking) {
+        IntervalTree accepted = acceptedByRoomId.computeIfAbsent(booking.getRoomId(), k -> new IntervalTree());
+        int start = (int) booking.getStartDate().toEpochDay();
+        int end = (int) booking.getEndDate().toEpochDay();
+        synchronized (accepted) {
+            if (booking.getStatus() == BookingStatus.ACCEPTED) accepted.insert(start, end, booking.getBookingId());
+            else accepted.remove(start, end, booking.getBookingId());
+        }
+    }
+
+    private void syncPartition(Map<String, Map<BookingStatus, Set<String>>> index, String key, Booking booking) {
+        Map<BookingStatus, Set<String>> byStatus = index.computeIfAbsent(key, k -> new EnumMap<>(BookingStatus.class));
+        synchronized (byStatus) {
+            BookingStatus current = booking.getStatus();
+            for (Map.Entry<BookingStatus, Set<String>> e : byStatus.entrySet()) {
+                if (e.getKey() != current) e.getValue().remove(booking.getBookingId());
+            }
+            byStatus.computeIfAbsent(current, k -> new LinkedHashSet<>()).add(booking.getBookingId());
+        }
+    }
+
+    private List<String> copyPartition(Map<BookingStatus, Set<String>> byStatus, BookingStatus status) {
+        if (byStatus == null) return new ArrayList<>();
+        synchronized (byStatus) {
+            return new ArrayList<>(byStatus.getOrDefault(status, Set.of()));
+        }
+    }
+
+    private List<String> copy(List<String> ids) {
+        if (ids == null) return new ArrayList<>();
+        synchronized (ids) {
+            return new ArrayList<>(ids);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.studentrentals.repository;
+
+import com.studentrentals.model.booking.Booking;
+import com.studentrentals.model.booking.BookingStatus;
+import com.studentrentals.persistence.BinaryReader;
+import com.studentrentals.persistence.BinaryWriter;
+import com.studentrentals.persistence.ModelCodec;
+import com.studentrentals.storage.BPlusTree;
+
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Consumer;
+
+// Bookings stored in an on-disk B+tree (ModelCodec records keyed by booking id), so booking history no
+// longer has to fit in heap; only the id indexes in BookingIndexes and the tree's page cache stay on-heap.
+//
+// Status changes are compare-and-set on the Booking instance, so every caller must see the same instance
+// for an id: loaded bookings are kept in a weak identity cache and only re-read from disk once nobody
+// references them any more (by which point the tree holds their latest status).
+//
+// The page file is a spill store, not a source of truth: it is recreated on open and refilled from
+// the snapshot and journal, which stay responsible for durability.
+public class DiskBookingRepository implements BookingRepository, AutoCloseable {
+
+    private static final class CachedBooking extends WeakReference<Booking> {
+        final String bookingId;
+
+        CachedBooking(Booking booking, ReferenceQueue<Booking> queue) {
+            super(booking, queue);
+            this.bookingId = booking.getBookingId();
+        }
+    }
+
+    private final BPlusTree tree; // also the lock for the identity cache
+    private final BookingIndexes indexes = new BookingIndexes();
+    private final Map<String, CachedBooking> identityCache = new HashMap<>();
+    private final ReferenceQueue<Booking> collected = new ReferenceQueue<>();
+
+    private DiskBookingRepository(BPlusTree tree) {
+        this.tree = tree;
+    }
+
+    public static DiskBookingRepository open(Path path, int pageSize, int cachePages) throws IOException {
+        Files.deleteIfExists(path);
+        return new DiskBookingRepository(BPlusTree.open(path, pageSize, cachePages));
+    }
+
+    @Override
+    public void save(Booking booking) {
+        synchronized (tree) {
+            persist(booking);
+            cache(booking);
+        }
+        indexes.add(booking);
+    }
+
+    @Override
+    public boolean transition(Booking booking, BookingStatus expected, BookingStatus next) {
+        if (!booking.compareAndSetStatus(expected, next)) return false;
+        // encodes the status current at write time, so racing transitions can't persist out of order
+        synchronized (tree) {
+            persist(booking);
+        }
+        indexes.sync(booking);
+        return true;
+    }
+
+    @Override
+    public boolean hasAcceptedOverlap(String roomId, LocalDate start, LocalDate end) {
+        return indexes.hasAcceptedOverlap(roomId, start, end);
+    }
+
+    @Override
+    public Optional<Booking> findById(String bookingId) {
+        synchronized (tree) {
+            return Optional.ofNullable(resolve(bookingId));
+        }
+    }
+
+    @Override
+    public List<Booking> findAll() {
+        List<Booking> all = new ArrayList<>();
+        forEach(all::add);
+        return all;
+    }
+
+    @Override
+    public void forEach(Consumer<Booking> action) {
+        List<Booking> batch = new ArrayList<>();
+        synchronized (tree) {
+            tree.forEach((id, bytes) -> batch.add(cachedOrDecode(id, bytes)));
+        }
+        batch.forEach(action);
+    }
+
+    @Override
+    public int count() {
+        return (int) tree.size();
+    }
+
+    @Override
+    public List<Booking> findByStudent(String studentId) {
+        return resolveAll(indexes.idsByStudent(studentId));
+    }
+
+    @Override
+    public List<Booking> findByOwner(String ownerId) {
+        return resolveAll(indexes.idsByOwner(ownerId));
+    }
+
+    @Override
+    public List<Booking> findByOwnerAndStatus(String ownerId, BookingStatus status) {
+        return resolveAll(indexes.idsByOwnerAndStatus(ownerId, status));
+    }
+
+    @Override
+    public List<Booking> findByRoomAndStatus(String roomId, BookingStatus status) {
+        return resolveAll(indexes.idsByRoomAndStatus(roomId, status));
+    }
+
+    // Page-cache hit/miss counters, for sizing cachePages
+    public long cacheHits() {
+        synchronized (tree) {
+            return tree.cacheHits();
+        }
+    }
+
+    public long cacheMisses() {
+        synchronized (tree) {
+            return tree.cacheMisses();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        tree.close();
+    }
+
+    private List<Booking> resolveAll(List<String> ids) {
+        List<Booking> out = new ArrayList<>(ids.size());
+        synchronized (tree) {
+            for (String id : ids) {
+                Booking b = resolve(id);
+                if (b != null) out.add(b);
+            }
+        }
+        return out;
+    }
+
+    // Caller holds the tree lock
+    private Booking resolve(String bookingId) {
+        Booking cached = cached(bookingId);
+        if (cached != null) return cached;
+        byte[] bytes = tree.get(bookingId);
+        return bytes == null ? null : cache(decode(bytes));
+    }
+
+    private Booking cachedOrDecode(String bookingId, byte[] bytes) {
+        Booking cached = cached(bookingId);
+        return cached != null ? cached : cache(decode(bytes));
+    }
+
+    private Booking cached(String bookingId) {
+        expungeCollected();
+        CachedBooking ref = identityCache.get(bookingId);
+        return ref == null ? null : ref.get();
+    }
+
+    private Booking cache(Booking booking) {
+        identityCache.put(booking.getBookingId(), new CachedBooking(booking, collected));
+        return booking;
+    }
+
+    private void expungeCollected() {
+        CachedBooking ref;
+        while ((ref = (CachedBooking) collected.poll()) != null) {
+            identityCache.remove(ref.bookingId, ref); // only if not already replaced by a newer instance
+        }
+    }
+
+    private void persist(Booking booking) {
+        BinaryWriter out = new BinaryWriter(96, false);
+        ModelCodec.writeBooking(out, booking);
+        tree.put(booking.getBookingId(), out.toByteArray());
+    }
+
+    private Booking decode(byte[] bytes) {
+        return ModelCodec.readBooking(new BinaryReader(ByteBuffer.wrap(bytes), false));
+    }
+}
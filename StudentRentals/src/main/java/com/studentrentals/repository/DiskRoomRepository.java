@@ -0,0 +1,158 @@
+package com.studentrentals.repository;
+
+import com.studentrentals.model.property.Room;
+import com.studentrentals.model.property.RoomType;
+import com.studentrentals.persistence.BinaryReader;
+import com.studentrentals.persistence.BinaryWriter;
+import com.studentrentals.persistence.ModelCodec;
+import com.studentrentals.storage.BPlusTree;
+import com.studentrentals.util.OccupancyCalendar;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+
+// Rooms stored in an on-disk B+tree (ModelCodec records keyed by room id), so the room set no longer has
+// to fit in heap; RoomIndexes (ids by city, occupancy calendars) and the tree's page cache stay on-heap.
+// Like OffHeapRoomRepository, findById returns a detached Room decoded from its record, so changes must
+// be written back with update(). The tree synchronises itself, so lookups may run alongside writes.
+//
+// The page file is a spill store, not a source of truth: it is recreated on open and refilled from
+// the snapshot and journal, which stay responsible for durability.
+public class DiskRoomRepository implements RoomRepository, AutoCloseable {
+
+    private final BPlusTree tree;
+    private final RoomIndexes indexes = new RoomIndexes();
+
+    private DiskRoomRepository(BPlusTree tree) {
+        this.tree = tree;
+    }
+
+    public static DiskRoomRepository open(Path path, int pageSize, int cachePages) throws IOException {
+        Files.deleteIfExists(path);
+        return new DiskRoomRepository(BPlusTree.open(path, pageSize, cachePages));
+    }
+
+    @Override
+    public void save(String city, Room room) {
+        persist(room);
+        indexes.add(city, room);
+    }
+
+    @Override
+    public Optional<Room> findById(String roomId) {
+        byte[] bytes = tree.get(roomId);
+        return bytes == null ? Optional.empty() : Optional.of(decode(bytes));
+    }
+
+    @Override
+    public List<Room> findAll() {
+        List<Room> rooms = new ArrayList<>();
+        tree.forEach((id, bytes) -> rooms.add(decode(bytes)));
+        return rooms;
+    }
+
+    @Override
+    public List<String> findAllIds() {
+        List<String> ids = new ArrayList<>();
+        tree.forEach((id, bytes) -> ids.add(id));
+        return ids;
+    }
+
+    @Override
+    public List<String> findIdsByCity(String city) {
+        return indexes.idsByCity(city);
+    }
+
+    @Override
+    public double rentOf(String roomId) {
+        return require(roomId).getMonthlyRent();
+    }
+
+    @Override
+    public RoomType typeOf(String roomId) {
+        return require(roomId).getType();
+    }
+
+    @Override
+    public int availableFromDayOf(String roomId) {
+        return (int) require(roomId).getAvailableFrom().toEpochDay();
+    }
+
+    @Override
+    public int availableToDayOf(String roomId) {
+        return (int) require(roomId).getAvailableTo().toEpochDay();
+    }
+
+    @Override
+    public void update(String city, Room room) {
+        if (tree.get(room.getRoomId()) == null) return;
+        persist(room);
+        indexes.update(city, room);
+    }
+
+    @Override
+    public Optional<OccupancyCalendar> findCalendar(String roomId) {
+        return Optional.ofNullable(indexes.calendar(roomId));
+    }
+
+    @Override
+    public boolean isRoomFree(String roomId, LocalDate start, LocalDate end) {
+        OccupancyCalendar calendar = indexes.calendar(roomId);
+        return calendar != null && calendar.isFree(start, end);
+    }
+
+    @Override
+    public void markBooked(String roomId, LocalDate start, LocalDate end) {
+        indexes.markBooked(roomId, start, end);
+    }
+
+    @Override
+    public void delete(String city, String roomId) {
+        tree.remove(roomId);
+        indexes.remove(city, roomId);
+    }
+
+    @Override
+    public void moveCityIndex(String oldCity, String newCity, String roomId) {
+        indexes.moveCity(oldCity, newCity, roomId);
+    }
+
+    @Override
+    public void addListener(RoomListener listener) {
+        indexes.addListener(listener);
+    }
+
+    // Page-cache hit/miss counters, for sizing cachePages
+    public long cacheHits() {
+        return tree.cacheHits();
+    }
+
+    public long cacheMisses() {
+        return tree.cacheMisses();
+    }
+
+    @Override
+    public void close() throws IOException {
+        tree.close();
+    }
+
+    private Room require(String roomId) {
+        byte[] bytes = tree.get(roomId);
+        if (bytes == null) throw new IllegalArgumentException("Room not found: " + roomId);
+        return decode(bytes);
+    }
+
+    private void persist(Room room) {
+        BinaryWriter out = new BinaryWriter(128, false);
+        ModelCodec.writeRoom(out, room);
+        tree.put(room.getRoomId(), out.toByteArray());
+    }
+
+    private Room decode(byte[] bytes) {
+        return ModelCodec.readRoom(new BinaryReader(ByteBuffer.wrap(bytes), false));
+    }
+}
@@ -0,0 +1,86 @@
+package com.studentrentals.repository;
+
+import com.studentrentals.model.booking.Booking;
+import com.studentrentals.model.booking.BookingStatus;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// Safe for concurrent use: the id map is concurrent and BookingIndexes guards its own containers.
+// Check-then-act sequences (overlap check + save/accept) are serialised per room by BookingService.
+public class InMemoryBookingRepository implements BookingRepository {
+
+    private final Map<String, Booking> byId = new ConcurrentHashMap<>();
+    private final BookingIndexes indexes = new BookingIndexes();
+
+    @Override
+    public void save(Booking booking) {
+        byId.put(booking.getBookingId(), booking);
+        indexes.add(booking);
+    }
+
+    // Lock-free: the booking's compare-and-set decides the winner
+    @Override
+    public boolean transition(Booking booking, BookingStatus expected, BookingStatus next) {
+        if (!booking.compareAndSetStatus(expected, next)) return false;
+        indexes.sync(booking);
+        return true;
+    }
+
+    @Override
+    public boolean hasAcceptedOverlap(String roomId, LocalDate start, LocalDate end) {
+        return indexes.hasAcceptedOverlap(roomId, start, end);
+    }
+
+    @Override
+    public Optional<Booking> findById(String bookingId) {
+        return Optional.ofNullable(byId.get(bookingId));
+    }
+
+    @Override
+    public List<Booking> findAll() {
+        return new ArrayList<>(byId.values());
+    }
+
+    @Override
+    public void forEach(Consumer<Booking> action) {
+        byId.values().forEach(action);
+    }
+
+    @Override
+    public int count() {
+        return byId.size();
+    }
+
+    @Override
+    public List<Booking> findByStudent(String studentId) {
+        return resolve(indexes.idsByStudent(studentId));
+    }
+
+    @Override
+    public List<Booking> findByOwner(String ownerId) {
+        return resolve(indexes.idsByOwner(ownerId));
+    }
+
+    // O(result size): reads the (owner, status) partition directly
+    @Override
+    public List<Booking> findByOwnerAndStatus(String ownerId, BookingStatus status) {
+        return resolve(indexes.idsByOwnerAndStatus(ownerId, status));
+    }
+
+    @Override
+    public List<Booking> findByRoomAndStatus(String roomId, BookingStatus status) {
+        return resolve(indexes.idsByRoomAndStatus(roomId, status));
+    }
+
+    private List<Booking> resolve(Collection<String> ids) {
+        List<Booking> out = new ArrayList<>();
+        for (String id : ids) {
+            Booking b = byId.get(id);
+            if (b != null) out.add(b);
+        }
+        return out;
+    }
+}
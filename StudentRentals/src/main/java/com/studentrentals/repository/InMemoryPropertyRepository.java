@@ -0,0 +1,68 @@
+package com.studentrentals.repository;
+
+import com.studentrentals.model.property.Property;
+
+import java.util.*;
+
+public class InMemoryPropertyRepository implements PropertyRepository {
+
+    private final Map<String, Property> byId = new HashMap<>();
+    private final Map<String, List<String>> propertyIdsByOwnerId = new HashMap<>();
+    private final List<PropertyListener> listeners = new ArrayList<>();
+
+    @Override
+    public void save(Property property) {
+        byId.put(property.getPropertyId(), property);
+
+        propertyIdsByOwnerId
+                .computeIfAbsent(property.getOwnerId(), k -> new ArrayList<>())
+                .add(property.getPropertyId());
+        for (PropertyListener l : listeners) l.propertySaved(property);
+    }
+
+    @Override
+    public void update(Property property) {
+        if (!byId.containsKey(property.getPropertyId())) return;
+        byId.put(property.getPropertyId(), property);
+        for (PropertyListener l : listeners) l.propertySaved(property);
+    }
+
+    @Override
+    public Optional<Property> findById(String propertyId) {
+        return Optional.ofNullable(byId.get(propertyId));
+    }
+
+    @Override
+    public List<Property> findAll() {
+        return new ArrayList<>(byId.values());
+    }
+
+    @Override
+    public List<Property> findByOwnerId(String ownerId) {
+        List<String> ids = propertyIdsByOwnerId.getOrDefault(ownerId, List.of());
+        List<Property> result = new ArrayList<>();
+        for (String id : ids) {
+            Property p = byId.get(id);
+            if (p != null) result.add(p);
+        }
+        return result;
+    }
+
+    @Override
+    public void delete(String ownerId, String propertyId) {
+        Property removed = byId.remove(propertyId);
+        if (removed == null) return;
+
+        List<String> ids = propertyIdsByOwnerId.get(ownerId);
+        if (ids != null) {
+            ids.removeIf(id -> id.equals(propertyId));
+            if (ids.isEmpty()) propertyIdsByOwnerId.remove(ownerId);
+        }
+        for (PropertyListener l : listeners) l.propertyRemoved(propertyId);
+    }
+
+    @Override
+    public void addListener(PropertyListener listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,109 @@
+package com.studentrentals.repository;
+
+import com.studentrentals.model.property.Room;
+import com.studentrentals.model.property.RoomType;
+import com.studentrentals.util.OccupancyCalendar;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class InMemoryRoomRepository implements RoomRepository {
+
+    // concurrent so BookingService's lookups can run alongside room writes
+    private final Map<String, Room> byId = new ConcurrentHashMap<>();
+    private final RoomIndexes indexes = new RoomIndexes();
+
+    @Override
+    public void save(String city, Room room) {
+        byId.put(room.getRoomId(), room);
+        indexes.add(city, room);
+    }
+
+    @Override
+    public Optional<Room> findById(String roomId) {
+        return Optional.ofNullable(byId.get(roomId));
+    }
+
+    @Override
+    public List<Room> findAll() {
+        return new ArrayList<>(byId.values());
+    }
+
+    @Override
+    public List<String> findAllIds() {
+        return new ArrayList<>(byId.keySet());
+    }
+
+    @Override
+    public List<String> findIdsByCity(String city) {
+        return indexes.idsByCity(city);
+    }
+
+    @Override
+    public double rentOf(String roomId) {
+        return require(roomId).getMonthlyRent();
+    }
+
+    @Override
+    public RoomType typeOf(String roomId) {
+        return require(roomId).getType();
+    }
+
+    @Override
+    public int availableFromDayOf(String roomId) {
+        return (int) require(roomId).getAvailableFrom().toEpochDay();
+    }
+
+    @Override
+    public int availableToDayOf(String roomId) {
+        return (int) require(roomId).getAvailableTo().toEpochDay();
+    }
+
+    @Override
+    public void update(String city, Room room) {
+        if (!byId.containsKey(room.getRoomId())) return;
+        byId.put(room.getRoomId(), room);
+        indexes.update(city, room);
+    }
+
+    @Override
+    public Optional<OccupancyCalendar> findCalendar(String roomId) {
+        return Optional.ofNullable(indexes.calendar(roomId));
+    }
+
+    // allocation-free
+    @Override
+    public boolean isRoomFree(String roomId, LocalDate start, LocalDate end) {
+        OccupancyCalendar calendar = indexes.calendar(roomId);
+        return calendar != null && calendar.isFree(start, end);
+    }
+
+    @Override
+    public void markBooked(String roomId, LocalDate start, LocalDate end) {
+        indexes.markBooked(roomId, start, end);
+    }
+
+    @Override
+    public void delete(String city, String roomId) {
+        byId.remove(roomId);
+        indexes.remove(city, roomId);
+    }
+
+    // If you ever allow changing city, call this (not required if city fixed)
+    @Override
+    public void moveCityIndex(String oldCity, String newCity, String roomId) {
+        indexes.moveCity(oldCity, newCity, roomId);
+    }
+
+    @Override
+    public void addListener(RoomListener listener) {
+        indexes.addListener(listener);
+    }
+
+    private Room require(String roomId) {
+        Room room = byId.get(roomId);
+        if (room == null) throw new IllegalArgumentException("Room not found: " + roomId);
+        return room;
+    }
+}
@@ -0,0 +1,39 @@
+package com.studentrentals.repository;
+
+import com.studentrentals.model.user.User;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class InMemoryUserRepository implements UserRepository {
+
+    // key: email (lowercased)
+    private final Map<String, User> usersByEmail = new HashMap<>();
+
+    @Override
+    public boolean emailExists(String email) {
+        return usersByEmail.containsKey(normalize(email));
+    }
+
+    @Override
+    public void save(User user) {
+        usersByEmail.put(normalize(user.getEmail()), user);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return Optional.ofNullable(usersByEmail.get(normalize(email)));
+    }
+
+    @Override
+    public List<User> findAll() {
+        return new ArrayList<>(usersByEmail.values());
+    }
+
+    private String normalize(String email) {
+        return email.trim().toLowerCase();
+    }
+}
@@ -0,0 +1,279 @@
+package com.studentrentals.repository;
+
+import com.studentrentals.model.property.Room;
+import com.studentrentals.model.property.RoomType;
+import com.studentrentals.util.OccupancyCalendar;
+import com.studentrentals.util.StringDictionary;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDate;
+import java.util.*;
+
+// Rooms as fixed-width 40-byte records in a direct ByteBuffer, outside the Java heap. Strings (ids, city,
+// and each distinct amenity list) are stored as StringDictionary ids, dates as epoch days. Each record
+// holds a reference on its five strings, so a string no room uses any more is dropped from the dictionary.
+// Field accessors read records in place; findById materialises a detached Room view, so changes
+// must be written back with update(). Deleted slots are reused. Not thread-safe, except that the calendar
+// calls (isRoomFree, markBooked, findCalendar) go through RoomIndexes and may run alongside writes.
+public class OffHeapRoomRepository implements RoomRepository {
+
+    // Record layout (byte offsets)
+    private static final int ROOM_ID = 0;
+    private static final int PROPERTY_ID = 4;
+    private static final int OWNER_ID = 8;
+    private static final int CITY = 12;
+    private static final int AMENITIES = 16;
+    private static final int FROM_DAY = 20;
+    private static final int TO_DAY = 24;
+    private static final int TYPE = 28;
+    private static final int RENT = 32;
+    private static final int RECORD_BYTES = 40;
+
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+
+    private final StringDictionary strings = new StringDictionary();
+    private final RoomIndexes indexes = new RoomIndexes();
+    // slot of each room, indexed by the dictionary id of its room id (-1 = none)
+    private int[] slotByRoomSymbol = new int[64];
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int slotCount; // high-water mark
+    private int size;
+    private ByteBuffer table;
+
+    public OffHeapRoomRepository() {
+        this(1024);
+    }
+
+    public OffHeapRoomRepository(int initialRooms) {
+        this.table = ByteBuffer.allocateDirect(Math.max(16, initialRooms) * RECORD_BYTES).order(ByteOrder.nativeOrder());
+        Arrays.fill(slotByRoomSymbol, -1);
+    }
+
+    @Override
+    public void save(String city, Room room) {
+        int slot = slotOf(room.getRoomId());
+        if (slot < 0) {
+            slot = allocateSlot();
+            write(slot, room, false);
+            int symbol = table.getInt(offset(slot) + ROOM_ID);
+            slotOfSymbol(symbol); // grows slotByRoomSymbol to cover a new symbol
+            slotByRoomSymbol[symbol] = slot;
+            size++;
+        } else {
+            write(slot, room, true);
+        }
+        indexes.add(city, room);
+    }
+
+    @Override
+    public Optional<Room> findById(String roomId) {
+        int slot = slotOf(roomId);
+        return slot < 0 ? Optional.empty() : Optional.of(materialise(slot));
+    }
+
+    @Override
+    public List<Room> findAll() {
+        List<Room> rooms = new ArrayList<>(size);
+        forEachSlot(slot -> rooms.add(materialise(slot)));
+        return rooms;
+    }
+
+    @Override
+    public List<String> findAllIds() {
+        List<String> ids = new ArrayList<>(size);
+        forEachSlot(slot -> ids.add(strings.get(table.getInt(offset(slot) + ROOM_ID))));
+        return ids;
+    }
+
+    @Override
+    public List<String> findIdsByCity(String city) {
+        return indexes.idsByCity(city);
+    }
+
+    @Override
+    public double rentOf(String roomId) {
+        return table.getDouble(offset(require(roomId)) + RENT);
+    }
+
+    @Override
+    public RoomType typeOf(String roomId) {
+        return ROOM_TYPES[table.get(offset(require(roomId)) + TYPE)];
+    }
+
+    @Override
+    public int availableFromDayOf(String roomId) {
+        return table.getInt(offset(require(roomId)) + FROM_DAY);
+    }
+
+    @Override
+    public int availableToDayOf(String roomId) {
+        return table.getInt(offset(require(roomId)) + TO_DAY);
+    }
+
+    @Override
+    public void update(String city, Room room) {
+        int slot = slotOf(room.getRoomId());
+        if (slot < 0) return;
+        write(slot, room, true);
+        indexes.update(city, room);
+    }
+
+    @Override
+    public Optional<OccupancyCalendar> findCalendar(String roomId) {
+        return Optional.ofNullable(indexes.calendar(roomId));
+    }
+
+    @Override
+    public boolean isRoomFree(String roomId, LocalDate start, LocalDate end) {
+        OccupancyCalendar calendar = indexes.calendar(roomId);
+        return calendar != null && calendar.isFree(start, end);
+    }
+
+    @Override
+    public void markBooked(String roomId, LocalDate start, LocalDate end) {
+        indexes.markBooked(roomId, start, end);
+    }
+
+    @Override
+    public void delete(String city, String roomId) {
+        int symbol = strings.find(roomId);
+        int slot = slotOfSymbol(symbol);
+        if (slot >= 0) {
+            slotByRoomSymbol[symbol] = -1;
+            releaseStrings(offset(slot));
+            table.putInt(offset(slot) + ROOM_ID, -1); // marks the slot free for scans
+            if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            freeSlots[freeCount++] = slot;
+            size--;
+        }
+        indexes.remove(city, roomId);
+    }
+
+    @Override
+    public void moveCityIndex(String oldCity, String newCity, String roomId) {
+        indexes.moveCity(oldCity, newCity, roomId);
+    }
+
+    @Override
+    public void addListener(RoomListener listener) {
+        indexes.addListener(listener);
+    }
+
+    // Off-heap bytes currently reserved for the table
+    public long tableBytes() {
+        return table.capacity();
+    }
+
+    // occupied: the slot holds a record whose strings are released once the new ones are held
+    private void write(int slot, Room room, boolean occupied) {
+        int base = offset(slot);
+        int[] old = occupied ? new int[] {
+                table.getInt(base + ROOM_ID), table.getInt(base + PROPERTY_ID), table.getInt(base + OWNER_ID),
+                table.getInt(base + CITY), table.getInt(base + AMENITIES)} : null;
+        table.putInt(base + ROOM_ID, strings.acquire(room.getRoomId()));
+        table.putInt(base + PROPERTY_ID, strings.acquire(room.getPropertyId()));
+        table.putInt(base + OWNER_ID, strings.acquire(room.getOwnerId()));
+        table.putInt(base + CITY, strings.acquire(room.getCity()));
+        table.putInt(base + AMENITIES, strings.acquire(encodeAmenities(room.getAmenities())));
+        table.putInt(base + FROM_DAY, (int) room.getAvailableFrom().toEpochDay());
+        table.putInt(base + TO_DAY, (int) room.getAvailableTo().toEpochDay());
+        table.put(base + TYPE, (byte) room.getType().ordinal());
+        table.putDouble(base + RENT, room.getMonthlyRent());
+        if (old != null) {
+            for (int symbol : old) strings.release(symbol);
+        }
+    }
+
+    private void releaseStrings(int base) {
+        for (int field : new int[] {ROOM_ID, PROPERTY_ID, OWNER_ID, CITY, AMENITIES}) {
+            strings.release(table.getInt(base + field));
+        }
+    }
+
+    // Each amenity as <length>:<text>, so no amenity text can be mistaken for a boundary and
+    // [] ("") stays distinct from [""] ("0:")
+    static String encodeAmenities(List<String> amenities) {
+        StringBuilder sb = new StringBuilder();
+        for (String a : amenities) sb.append(a.length()).append(':').append(a);
+        return sb.toString();
+    }
+
+    static List<String> decodeAmenities(String encoded) {
+        List<String> amenities = new ArrayList<>();
+        int i = 0;
+        while (i < encoded.length()) {
+            int colon = encoded.indexOf(':', i);
+            int start = colon + 1;
+            int end = start + Integer.parseInt(encoded, i, colon, 10);
+            amenities.add(encoded.substring(start, end));
+            i = end;
+        }
+        return amenities;
+    }
+
+    // Ids the string dictionary has handed out, live or free (bounded by the strings rooms use now)
+    int dictionarySize() {
+        return strings.size();
+    }
+
+    private Room materialise(int slot) {
+        int base = offset(slot);
+        return new Room(
+                strings.get(table.getInt(base + ROOM_ID)),
+                strings.get(table.getInt(base + PROPERTY_ID)),
+                strings.get(table.getInt(base + OWNER_ID)),
+                strings.get(table.getInt(base + CITY)),
+                ROOM_TYPES[table.get(base + TYPE)],
+                table.getDouble(base + RENT),
+                decodeAmenities(strings.get(table.getInt(base + AMENITIES))),
+                LocalDate.ofEpochDay(table.getInt(base + FROM_DAY)),
+                LocalDate.ofEpochDay(table.getInt(base + TO_DAY))
+        );
+    }
+
+    private interface SlotVisitor {
+        void visit(int slot);
+    }
+
+    private void forEachSlot(SlotVisitor visitor) {
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (table.getInt(offset(slot) + ROOM_ID) >= 0) visitor.visit(slot);
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) return freeSlots[--freeCount];
+        if ((slotCount + 1) * RECORD_BYTES > table.capacity()) {
+            ByteBuffer bigger = ByteBuffer.allocateDirect(table.capacity() * 2).order(ByteOrder.nativeOrder());
+            bigger.put(table.duplicate().clear());
+            table = bigger;
+        }
+        return slotCount++;
+    }
+
+    private int slotOf(String roomId) {
+        return slotOfSymbol(strings.find(roomId));
+    }
+
+    private int slotOfSymbol(int symbol) {
+        if (symbol < 0) return -1;
+        if (symbol >= slotByRoomSymbol.length) {
+            int oldLength = slotByRoomSymbol.length;
+            slotByRoomSymbol = Arrays.copyOf(slotByRoomSymbol, Math.max(symbol + 1, oldLength * 2));
+            Arrays.fill(slotByRoomSymbol, oldLength, slotByRoomSymbol.length, -1);
+        }
+        return slotByRoomSymbol[symbol];
+    }
+
+    private int require(String roomId) {
+        int slot = slotOf(roomId);
+        if (slot < 0) throw new IllegalArgumentException("Room not found: " + roomId);
+        return slot;
+    }
+
+    private static int offset(int slot) {
+        return slot * RECORD_BYTES;
+    }
+}
@@ -0,0 +1,12 @@
+package com.studentrentals.repository;
+
+import com.studentrentals.model.property.Property;
+
+// Notified synchronously after every property change, e.g. to keep derived read structures current
+public interface PropertyListener {
+
+    // New property, or changed fields of an existing one
+    default void propertySaved(Property property) {}
+
+    default void propertyRemoved(String propertyId) {}
+}
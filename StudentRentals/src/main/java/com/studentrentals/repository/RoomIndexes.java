@@ -0,0 +1,87 @@
+package com.studentrentals.repository;
+
+import com.studentrentals.model.property.Room;
+import com.studentrentals.util.OccupancyCalendar;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Secondary indexes shared by the room repositories: ids by city and per-room occupancy calendars
+// (rent and date filters run in RoomColumns). Holds ids only, so it works the same whether rooms live
+// on-heap or not.
+// Also the single place room changes pass through, so it fans them out to RoomListeners.
+// Room writes are single-threaded (same contract as the room repositories), but BookingService checks and
+// marks calendars from many threads under per-room locks only, so the calendar map and listener list are
+// safe to read while rooms are added, updated or removed; OccupancyCalendar synchronises itself.
+class RoomIndexes {
+
+    private final Map<String, List<String>> roomIdsByCity = new HashMap<>();
+
+    // Per-room occupancy bitmaps over the availability window (accepted bookings marked)
+    private final Map<String, OccupancyCalendar> calendarsByRoomId = new ConcurrentHashMap<>();
+
+    private final List<RoomListener> listeners = new CopyOnWriteArrayList<>();
+
+    void addListener(RoomListener listener) {
+        listeners.add(listener);
+    }
+
+    void add(String city, Room room) {
+        String key = norm(city);
+        roomIdsByCity.computeIfAbsent(key, k -> new ArrayList<>()).add(room.getRoomId());
+        calendarsByRoomId.put(room.getRoomId(), new OccupancyCalendar(room.getAvailableFrom(), room.getAvailableTo()));
+        for (RoomListener l : listeners) l.roomSaved(city, room);
+    }
+
+    // Moves the room's calendar to its (possibly changed) availability window
+    void update(String city, Room room) {
+        OccupancyCalendar calendar = calendarsByRoomId.get(room.getRoomId());
+        if (calendar != null) calendar.resize(room.getAvailableFrom(), room.getAvailableTo());
+        for (RoomListener l : listeners) l.roomSaved(city, room);
+    }
+
+    void remove(String city, String roomId) {
+        List<String> ids = roomIdsByCity.get(norm(city));
+        if (ids != null) {
+            ids.removeIf(id -> id.equals(roomId));
+            if (ids.isEmpty()) roomIdsByCity.remove(norm(city));
+        }
+        calendarsByRoomId.remove(roomId);
+        for (RoomListener l : listeners) l.roomRemoved(roomId);
+    }
+
+    void moveCity(String oldCity, String newCity, String roomId) {
+        List<String> oldList = roomIdsByCity.get(norm(oldCity));
+        if (oldList != null) {
+            oldList.removeIf(id -> id.equals(roomId));
+            if (oldList.isEmpty()) roomIdsByCity.remove(norm(oldCity));
+        }
+        roomIdsByCity.computeIfAbsent(norm(newCity), k -> new ArrayList<>()).add(roomId);
+        for (RoomListener l : listeners) l.roomMoved(roomId, newCity);
+    }
+
+    List<String> idsByCity(String city) {
+        return new ArrayList<>(roomIdsByCity.getOrDefault(norm(city), List.of()));
+    }
+
+    void markBooked(String roomId, LocalDate start, LocalDate end) {
+        OccupancyCalendar calendar = calendarsByRoomId.get(roomId);
+        if (calendar == null) return;
+        calendar.markBooked(epochDay(start), epochDay(end));
+        for (RoomListener l : listeners) l.roomBooked(roomId);
+    }
+
+    OccupancyCalendar calendar(String roomId) {
+        return calendarsByRoomId.get(roomId);
+    }
+
+    private int epochDay(LocalDate date) {
+        return (int) date.toEpochDay();
+    }
+
+    private String norm(String city) {
+        return city == null ? "" : city.toLowerCase().trim();
+    }
+}
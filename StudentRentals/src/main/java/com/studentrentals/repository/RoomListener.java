@@ -0,0 +1,17 @@
+package com.studentrentals.repository;
+
+import com.studentrentals.model.property.Room;
+
+// Notified synchronously after every room change, e.g. to keep derived read structures current
+public interface RoomListener {
+
+    // New room, or changed fields of an existing one
+    default void roomSaved(String city, Room room) {}
+
+    default void roomRemoved(String roomId) {}
+
+    default void roomMoved(String roomId, String newCity) {}
+
+    // An accepted booking now occupies part of the room's calendar
+    default void roomBooked(String roomId) {}
+}
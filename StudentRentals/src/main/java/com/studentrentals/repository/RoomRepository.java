@@ -1,59 +1,64 @@
 package com.studentrentals.repository;
 
 import com.studentrentals.model.property.Room;
+import com.studentrentals.model.property.RoomType;
+import com.studentrentals.util.OccupancyCalendar;
 
-import java.util.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
-public class RoomRepository {
+// Rooms handed out may be detached views of stored records (see OffHeapRoomRepository): after changing
+// one, pass it to update() to store the change. Scans should work on ids and the field accessors, and
+// only materialise Room objects for their results.
+public interface RoomRepository {
 
-    private final Map<String, Room> byId = new HashMap<>();
-    private final Map<String, List<String>> roomIdsByCity = new HashMap<>();
+    void save(String city, Room room);
 
-    public void save(String city, Room room) {
-        String key = norm(city);
-        byId.put(room.getRoomId(), room);
-        roomIdsByCity.computeIfAbsent(key, k -> new ArrayList<>()).add(room.getRoomId());
-    }
+    Optional<Room> findById(String roomId);
 
-    public Optional<Room> findById(String roomId) {
-        return Optional.ofNullable(byId.get(roomId));
-    }
+    List<Room> findAll();
 
-    public List<Room> findByCity(String city) {
-        List<String> ids = roomIdsByCity.getOrDefault(norm(city), List.of());
-        List<Room> rooms = new ArrayList<>();
-        for (String id : ids) {
-            Room r = byId.get(id);
-            if (r != null) rooms.add(r);
-        }
-        return rooms;
-    }
+    List<String> findAllIds();
 
-    public List<Room> findAll() {
-        return new ArrayList<>(byId.values());
-    }
+    List<String> findIdsByCity(String city);
 
-    public void delete(String city, String roomId) {
-        byId.remove(roomId);
+    // Field reads by id, without materialising the room; unknown ids throw IllegalArgumentException
+    double rentOf(String roomId);
 
-        List<String> ids = roomIdsByCity.get(norm(city));
-        if (ids != null) {
-            ids.removeIf(id -> id.equals(roomId));
-            if (ids.isEmpty()) roomIdsByCity.remove(norm(city));
-        }
-    }
+    RoomType typeOf(String roomId);
+
+    int availableFromDayOf(String roomId);
+
+    int availableToDayOf(String roomId);
 
-    // If you ever allow changing city, call this (not required if city fixed)
-    public void moveCityIndex(String oldCity, String newCity, String roomId) {
-        List<String> oldList = roomIdsByCity.get(norm(oldCity));
-        if (oldList != null) {
-            oldList.removeIf(id -> id.equals(roomId));
-            if (oldList.isEmpty()) roomIdsByCity.remove(norm(oldCity));
-        }
-        roomIdsByCity.computeIfAbsent(norm(newCity), k -> new ArrayList<>()).add(roomId);
+    // Stores the room's current fields and refreshes the secondary indexes (no-op for unknown rooms)
+    void update(String city, Room room);
+
+    Optional<OccupancyCalendar> findCalendar(String roomId);
+
+    // true if [start, end] lies in the room's window and no accepted booking covers any of it
+    boolean isRoomFree(String roomId, LocalDate start, LocalDate end);
+
+    // Called by BookingService when a booking for the room is accepted
+    void markBooked(String roomId, LocalDate start, LocalDate end);
+
+    void delete(String city, String roomId);
+
+    void moveCityIndex(String oldCity, String newCity, String roomId);
+
+    // Called synchronously after each save, update, delete, city move and markBooked
+    void addListener(RoomListener listener);
+
+    default List<Room> findAllById(Collection<String> roomIds) {
+        List<Room> rooms = new ArrayList<>(roomIds.size());
+        for (String id : roomIds) findById(id).ifPresent(rooms::add);
+        return rooms;
     }
 
-    private String norm(String city) {
-        return city == null ? "" : city.toLowerCase().trim();
+    default List<Room> findByCity(String city) {
+        return findAllById(findIdsByCity(city));
     }
 }
@@ -2,28 +2,16 @@ package com.studentrentals.repository;
 
 import com.studentrentals.model.user.User;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.Optional;
 
-public class UserRepository {
+public interface UserRepository {
 
-    // key: email (lowercased)
-    private final Map<String, User> usersByEmail = new HashMap<>();
+    boolean emailExists(String email);
 
-    public boolean emailExists(String email) {
-        return usersByEmail.containsKey(normalize(email));
-    }
+    void save(User user);
 
-    public void save(User user) {
-        usersByEmail.put(normalize(user.getEmail()), user);
-    }
+    Optional<User> findByEmail(String email);
 
-    public Optional<User> findByEmail(String email) {
-        return Optional.ofNullable(usersByEmail.get(normalize(email)));
-    }
-
-    private String normalize(String email) {
-        return email.trim().toLowerCase();
-    }
+    List<User> findAll();
 }
@@ -0,0 +1,71 @@
+package com.studentrentals.service;
+
+import com.studentrentals.util.RoaringBitmap;
+
+import java.util.*;
+
+// Inverted index from normalised amenity term to the room ordinals (see RoomColumns) that offer it.
+// Terms are lower-cased with everything but letters and digits dropped, so "En-suite", "en suite"
+// and "Ensuite" share one posting list.
+class AmenityIndex {
+
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+    private final Map<String, RoaringBitmap> postings = new HashMap<>();
+
+    static String term(String amenity) {
+        if (amenity == null) return "";
+        StringBuilder sb = new StringBuilder(amenity.length());
+        for (int i = 0; i < amenity.length(); i++) {
+            char c = amenity.charAt(i);
+            if (Character.isLetterOrDigit(c)) sb.append(Character.toLowerCase(c));
+        }
+        return sb.toString();
+    }
+
+    // Distinct non-empty terms for a list of amenities as entered
+    static String[] terms(Collection<String> amenities) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String a : amenities) {
+            String t = term(a);
+            if (!t.isEmpty()) terms.add(t);
+        }
+        return terms.toArray(new String[0]);
+    }
+
+    void add(int ordinal, String[] terms) {
+        for (String t : terms) postings.computeIfAbsent(t, k -> new RoaringBitmap()).add(ordinal);
+    }
+
+    void remove(int ordinal, String[] terms) {
+        for (String t : terms) {
+            RoaringBitmap rooms = postings.get(t);
+            if (rooms == null) continue;
+            rooms.remove(ordinal);
+            if (rooms.isEmpty()) postings.remove(t);
+        }
+    }
+
+    // Posting list for one term; empty (shared, do not modify) if no room offers it
+    RoaringBitmap postings(String term) {
+        return postings.getOrDefault(term, EMPTY);
+    }
+
+    // Per term, how many of the rooms set in the mask offer it (terms with none are skipped)
+    void countInto(long[] mask, SearchFacets facets) {
+        for (Map.Entry<String, RoaringBitmap> e : postings.entrySet()) {
+            int n = e.getValue().andCardinality(mask);
+            if (n > 0) facets.addAmenity(e.getKey(), n);
+        }
+    }
+
+    // Rooms offering at least one of the terms
+    RoaringBitmap anyOf(String[] terms) {
+        RoaringBitmap union = new RoaringBitmap();
+        for (String t : terms) {
+            RoaringBitmap rooms = postings.get(t);
+            if (rooms != null) union = RoaringBitmap.or(union, rooms);
+        }
+        return union;
+    }
+}
@@ -3,6 +3,7 @@ package com.studentrentals.service;
 import com.studentrentals.model.user.Homeowner;
 import com.studentrentals.model.user.Student;
 import com.studentrentals.model.user.User;
+import com.studentrentals.persistence.MutationLog;
 import com.studentrentals.repository.UserRepository;
 import com.studentrentals.util.IdGenerator;
 import com.studentrentals.util.PasswordHasher;
@@ -10,9 +11,15 @@ import com.studentrentals.util.PasswordHasher;
 public class AuthService {
 
     private final UserRepository userRepository;
+    private final MutationLog mutationLog;
 
     public AuthService(UserRepository userRepository) {
+        this(userRepository, MutationLog.NONE);
+    }
+
+    public AuthService(UserRepository userRepository, MutationLog mutationLog) {
         this.userRepository = userRepository;
+        this.mutationLog = mutationLog;
     }
 
     public Student registerStudent(String name, String email, String plainPassword,
@@ -38,6 +45,7 @@ public class AuthService {
                 studentId.trim()
         );
         userRepository.save(student);
+        mutationLog.userSaved(student);
         return student;
     }
 
@@ -64,6 +72,7 @@ public class AuthService {
                 contactNumber.trim()
         );
         userRepository.save(owner);
+        mutationLog.userSaved(owner);
         return owner;
     }
 
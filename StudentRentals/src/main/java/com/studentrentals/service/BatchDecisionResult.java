@@ -0,0 +1,26 @@
+package com.studentrentals.service;
+
+import com.studentrentals.model.booking.Booking;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Outcome of BookingService.respondToRequests
+public class BatchDecisionResult {
+    private final List<Booking> accepted = new ArrayList<>();
+    private final List<Booking> rejected = new ArrayList<>();
+    private final List<Booking> autoRejected = new ArrayList<>();   // PENDING requests made impossible by an acceptance
+    private final Map<String, String> failures = new LinkedHashMap<>(); // bookingId -> reason
+
+    public List<Booking> getAccepted() { return new ArrayList<>(accepted); }
+    public List<Booking> getRejected() { return new ArrayList<>(rejected); }
+    public List<Booking> getAutoRejected() { return new ArrayList<>(autoRejected); }
+    public Map<String, String> getFailures() { return new LinkedHashMap<>(failures); }
+
+    void addAccepted(Booking booking) { accepted.add(booking); }
+    void addRejected(Booking booking) { rejected.add(booking); }
+    void addAutoRejected(Booking booking) { autoRejected.add(booking); }
+    void addFailure(String bookingId, String reason) { failures.put(bookingId, reason); }
+}
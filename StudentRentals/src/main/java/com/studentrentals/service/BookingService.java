@@ -2,21 +2,38 @@ package com.studentrentals.service;
 
 import com.studentrentals.model.booking.Booking;
 import com.studentrentals.model.booking.BookingStatus;
+import com.studentrentals.persistence.MutationLog;
 import com.studentrentals.repository.BookingRepository;
 import com.studentrentals.repository.RoomRepository;
 import com.studentrentals.util.IdGenerator;
+import com.studentrentals.util.StripedLocks;
 
 import java.time.LocalDate;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class BookingService {
 
+    private static final Comparator<Booking> BY_START = Comparator.comparing(Booking::getStartDate);
+
     private final RoomRepository roomRepository;
     private final BookingRepository bookingRepository;
+    private final PendingExpiryScheduler expiryScheduler; // nullable: requests never expire
+    private final MutationLog mutationLog;
+
+    // Booking decisions are serialised per room only; rooms on different stripes proceed in parallel
+    private final StripedLocks roomLocks = new StripedLocks(64);
 
     public BookingService(RoomRepository roomRepository, BookingRepository bookingRepository) {
+        this(roomRepository, bookingRepository, null, MutationLog.NONE);
+    }
+
+    public BookingService(RoomRepository roomRepository, BookingRepository bookingRepository,
+                          PendingExpiryScheduler expiryScheduler, MutationLog mutationLog) {
         this.roomRepository = roomRepository;
         this.bookingRepository = bookingRepository;
+        this.expiryScheduler = expiryScheduler;
+        this.mutationLog = mutationLog;
     }
 
     // Student requests booking -> creates PENDING if valid and not overlapping with accepted bookings
@@ -34,24 +51,36 @@ public class BookingService {
             throw new IllegalArgumentException("Requested dates are outside room availability");
         }
 
-        // Prevent double booking: check overlap with ACCEPTED bookings
-        List<Booking> accepted = bookingRepository.findByRoomAndStatus(roomId, BookingStatus.ACCEPTED);
-        for (Booking b : accepted) {
-            if (b.overlaps(start, end)) {
+        Booking booking;
+        MutationLog.Queued logged;
+        ReentrantLock lock = roomLocks.lockFor(roomId);
+        lock.lock();
+        try {
+            // Prevent double booking: accepted days are marked in the room's occupancy calendar
+            if (!roomRepository.isRoomFree(roomId, start, end)) {
                 throw new IllegalArgumentException("Room already booked for the requested period");
             }
+
+            booking = new Booking(
+                    IdGenerator.newId("book"),
+                    roomId,
+                    room.getOwnerId(),
+                    studentId.trim(),
+                    start,
+                    end,
+                    BookingStatus.PENDING
+            );
+            // Queued before the save makes it visible: a status change (the reject path takes no lock)
+            // can only be logged after this record, or replay would drop it for an unknown booking
+            logged = mutationLog.queueBookingSaved(booking);
+            bookingRepository.save(booking);
+        } finally {
+            lock.unlock();
         }
 
-        Booking booking = new Booking(
-                IdGenerator.newId("book"),
-                roomId,
-                room.getOwnerId(),
-                studentId.trim(),
-                start,
-                end,
-                BookingStatus.PENDING
-        );
-        bookingRepository.save(booking);
+        // wait for the group fsync outside the room lock so it doesn't hold up this room
+        logged.await();
+        if (expiryScheduler != null) expiryScheduler.track(booking);
         return booking;
     }
 
@@ -87,17 +116,129 @@ public class BookingService {
             throw new IllegalArgumentException("Only PENDING bookings can be responded to");
         }
 
-        if (decision == BookingStatus.ACCEPTED) {
+        // Rejecting needs no overlap check, so it is a plain compare-and-set with no lock
+        if (decision == BookingStatus.REJECTED) {
+            transitionOrFail(booking, decision);
+            mutationLog.bookingStatusChanged(booking);
+            return booking;
+        }
+
+        // Accepting: overlap check + transition must be one step, so it runs under the room's stripe.
+        // Uncontended that is a single CAS; a concurrent reject/expiry makes the transition fail fast.
+        ReentrantLock lock = roomLocks.lockFor(booking.getRoomId());
+        lock.lock();
+        try {
             // re-check overlap at acceptance time (important for correctness)
-            List<Booking> accepted = bookingRepository.findByRoomAndStatus(booking.getRoomId(), BookingStatus.ACCEPTED);
-            for (Booking b : accepted) {
-                if (b.overlaps(booking.getStartDate(), booking.getEndDate())) {
-                    throw new IllegalArgumentException("Cannot accept: room already accepted for overlapping period");
-                }
+            if (bookingRepository.hasAcceptedOverlap(booking.getRoomId(), booking.getStartDate(), booking.getEndDate())) {
+                throw new IllegalArgumentException("Cannot accept: room already accepted for overlapping period");
             }
+            transitionOrFail(booking, decision);
+            roomRepository.markBooked(booking.getRoomId(), booking.getStartDate(), booking.getEndDate());
+        } finally {
+            lock.unlock();
         }
 
-        booking.setStatus(decision);
+        mutationLog.bookingStatusChanged(booking);
         return booking;
     }
+
+    // Owner decides many requests at once. Rejections are applied first; acceptances are then processed
+    // per room in start-date order, and PENDING requests overlapping a new acceptance are auto-rejected
+    // in one sweep instead of N independent checks.
+    public BatchDecisionResult respondToRequests(String ownerId, Map<String, BookingStatus> decisions) {
+        if (ownerId == null || ownerId.isBlank()) throw new IllegalArgumentException("OwnerId required");
+        if (decisions == null) throw new IllegalArgumentException("Decisions required");
+
+        BatchDecisionResult result = new BatchDecisionResult();
+        Map<String, List<Booking>> acceptsByRoom = new HashMap<>();
+
+        for (Map.Entry<String, BookingStatus> e : decisions.entrySet()) {
+            String bookingId = e.getKey();
+            BookingStatus decision = e.getValue();
+            if (decision != BookingStatus.ACCEPTED && decision != BookingStatus.REJECTED) {
+                result.addFailure(bookingId, "Decision must be ACCEPTED or REJECTED");
+                continue;
+            }
+
+            Booking booking = bookingRepository.findById(bookingId).orElse(null);
+            if (booking == null) {
+                result.addFailure(bookingId, "Booking not found");
+            } else if (!booking.getOwnerId().equals(ownerId)) {
+                result.addFailure(bookingId, "You are not allowed to respond to this booking");
+            } else if (booking.getStatus() != BookingStatus.PENDING) {
+                result.addFailure(bookingId, "Only PENDING bookings can be responded to");
+            } else if (decision == BookingStatus.REJECTED) {
+                if (bookingRepository.transition(booking, BookingStatus.PENDING, BookingStatus.REJECTED)) {
+                    result.addRejected(booking);
+                } else {
+                    result.addFailure(bookingId, "Booking was changed concurrently (now " + booking.getStatus() + ")");
+                }
+            } else {
+                acceptsByRoom.computeIfAbsent(booking.getRoomId(), k -> new ArrayList<>()).add(booking);
+            }
+        }
+
+        for (Map.Entry<String, List<Booking>> e : acceptsByRoom.entrySet()) {
+            ReentrantLock lock = roomLocks.lockFor(e.getKey());
+            lock.lock();
+            try {
+                acceptForRoom(e.getKey(), e.getValue(), result);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        for (Booking b : result.getRejected()) mutationLog.bookingStatusChanged(b);
+        for (Booking b : result.getAccepted()) mutationLog.bookingStatusChanged(b);
+        for (Booking b : result.getAutoRejected()) mutationLog.bookingStatusChanged(b);
+        return result;
+    }
+
+    // Caller holds the room's lock
+    private void acceptForRoom(String roomId, List<Booking> accepts, BatchDecisionResult result) {
+        accepts.sort(BY_START);
+
+        // Accept in start order; the occupancy tree already contains earlier acceptances from this batch
+        List<Booking> newlyAccepted = new ArrayList<>();
+        for (Booking b : accepts) {
+            if (bookingRepository.hasAcceptedOverlap(roomId, b.getStartDate(), b.getEndDate())) {
+                // Clashing with this batch's acceptances leaves it PENDING for the sweep below to auto-reject.
+                // Those are sorted and disjoint, so only the latest can reach b's start.
+                Booking last = newlyAccepted.isEmpty() ? null : newlyAccepted.get(newlyAccepted.size() - 1);
+                if (last == null || last.getEndDate().isBefore(b.getStartDate())) {
+                    result.addFailure(b.getBookingId(), "Room already booked for overlapping dates");
+                }
+                continue;
+            }
+            if (bookingRepository.transition(b, BookingStatus.PENDING, BookingStatus.ACCEPTED)) {
+                roomRepository.markBooked(roomId, b.getStartDate(), b.getEndDate());
+                newlyAccepted.add(b);
+                result.addAccepted(b);
+            } else {
+                result.addFailure(b.getBookingId(), "Booking was changed concurrently (now " + b.getStatus() + ")");
+            }
+        }
+        if (newlyAccepted.isEmpty()) return;
+
+        // Sweep: accepted periods never overlap, so sorted by start they are also sorted by end.
+        // For pending requests in start order, the first accepted period ending on/after the request's
+        // start only moves forward; the request is impossible iff that period starts before it ends.
+        List<Booking> pending = bookingRepository.findByRoomAndStatus(roomId, BookingStatus.PENDING);
+        pending.sort(BY_START);
+        int i = 0;
+        for (Booking p : pending) {
+            while (i < newlyAccepted.size() && newlyAccepted.get(i).getEndDate().isBefore(p.getStartDate())) i++;
+            if (i == newlyAccepted.size()) break;
+            if (!newlyAccepted.get(i).getStartDate().isAfter(p.getEndDate())
+                    && bookingRepository.transition(p, BookingStatus.PENDING, BookingStatus.REJECTED)) {
+                result.addAutoRejected(p);
+            }
+        }
+    }
+
+    private void transitionOrFail(Booking booking, BookingStatus decision) {
+        if (!bookingRepository.transition(booking, BookingStatus.PENDING, decision)) {
+            throw new IllegalArgumentException("Booking was changed concurrently (now " + booking.getStatus() + "); try again");
+        }
+    }
 }
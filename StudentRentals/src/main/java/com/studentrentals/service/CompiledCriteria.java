@@ -0,0 +1,73 @@
+package com.studentrentals.service;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+// SearchCriteria reduced once per query (or per saved search) to primitive bounds, so checking a room
+// does no null tests, LocalDate comparisons or amenity normalisation. An absent filter becomes a bound
+// every room passes (rent -inf..+inf, any type, window start MAX / end MIN), so a room passes when
+//   rent >= minRent & rent <= maxRent & (type == ANY_TYPE | type == roomType)
+//   & availableFrom <= startDay & availableTo >= endDay
+// which callers evaluate as one straight-line expression over primitive columns (RoomColumns' scan
+// filters, SubscriptionIndex's entry lists) instead of a chain of filter objects the JIT could not
+// inline. A window that ends before it starts becomes bounds no room passes.
+final class CompiledCriteria {
+
+    static final int ANY_TYPE = -1;
+
+    final String city;       // normalised; "" = any
+    final int type;          // RoomType ordinal, ANY_TYPE = any
+    final double minRent;
+    final double maxRent;
+    final int startDay;      // epoch days; the room's window must cover [startDay, endDay]
+    final int endDay;
+    final String[] required; // AmenityIndex terms
+    final String[] optional;
+    final boolean hasRent;
+    final boolean hasWindow;
+    final boolean emptyWindow;
+
+    private CompiledCriteria(SearchCriteria c) {
+        city = c.getCity() == null ? "" : c.getCity().toLowerCase().trim();
+        type = c.getRoomType() == null ? ANY_TYPE : c.getRoomType().ordinal();
+        hasRent = c.getMinPrice() != null || c.getMaxPrice() != null;
+        minRent = c.getMinPrice() != null ? c.getMinPrice() : Double.NEGATIVE_INFINITY;
+        maxRent = c.getMaxPrice() != null ? c.getMaxPrice() : Double.POSITIVE_INFINITY;
+        LocalDate start = c.getStartDate();
+        LocalDate end = c.getEndDate();
+        hasWindow = start != null && end != null;
+        emptyWindow = hasWindow && end.isBefore(start);
+        if (!hasWindow) {
+            startDay = Integer.MAX_VALUE;
+            endDay = Integer.MIN_VALUE;
+        } else if (emptyWindow) {
+            startDay = Integer.MIN_VALUE;
+            endDay = Integer.MAX_VALUE;
+        } else {
+            startDay = (int) start.toEpochDay();
+            endDay = (int) end.toEpochDay();
+        }
+        required = AmenityIndex.terms(c.getRequiredAmenities());
+        optional = AmenityIndex.terms(c.getOptionalAmenities());
+    }
+
+    static CompiledCriteria of(SearchCriteria criteria) {
+        return new CompiledCriteria(criteria);
+    }
+
+    boolean hasAmenities() {
+        return required.length > 0 || optional.length > 0;
+    }
+
+    // offered: the room's AmenityIndex terms
+    boolean matchesAmenities(Set<String> offered) {
+        for (String t : required) {
+            if (!offered.contains(t)) return false;
+        }
+        if (optional.length == 0) return true;
+        for (String t : optional) {
+            if (offered.contains(t)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,81 @@
+package com.studentrentals.service;
+
+import com.studentrentals.model.booking.Booking;
+import com.studentrentals.model.booking.BookingStatus;
+import com.studentrentals.persistence.MutationLog;
+import com.studentrentals.repository.BookingRepository;
+import com.studentrentals.util.TimingWheel;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Moves PENDING bookings the owner never answered to CANCELLED after a timeout.
+// Each request gets one timer in a hierarchical timing wheel, so expiry costs O(1) per booking
+// instead of periodic scans of the pending lists. Timers are not cancelled when the owner responds:
+// the expiry is a PENDING -> CANCELLED compare-and-set, which simply fails for answered bookings.
+// The timeout runs from the booking's request time, so bookings already PENDING when the scheduler starts
+// (e.g. replayed from the journal) keep their original deadline; one that passed while down expires on the first tick.
+public class PendingExpiryScheduler implements AutoCloseable {
+
+    private final BookingRepository bookingRepository;
+    private final MutationLog mutationLog;
+    private final long timeoutMillis;
+    private final long tickMillis;
+    private final TimingWheel wheel;
+    private ScheduledExecutorService ticker;
+
+    public PendingExpiryScheduler(BookingRepository bookingRepository, MutationLog mutationLog,
+                                  Duration timeout, Duration tick) {
+        if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Expiry timeout must be > 0");
+        }
+        if (tick == null || tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("Tick must be > 0");
+        }
+        this.bookingRepository = bookingRepository;
+        this.mutationLog = mutationLog;
+        this.timeoutMillis = timeout.toMillis();
+        this.tickMillis = tick.toMillis();
+        this.wheel = new TimingWheel(tickMillis, System.currentTimeMillis());
+    }
+
+    // Starts the background ticker (daemon thread, so it never keeps the JVM alive)
+    public synchronized void start() {
+        if (ticker != null) return;
+        bookingRepository.forEach(b -> {
+            if (b.getStatus() == BookingStatus.PENDING) track(b);
+        });
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pending-expiry");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(() -> wheel.advanceTo(System.currentTimeMillis()),
+                tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Called by BookingService for every new PENDING request
+    public void track(Booking booking) {
+        String bookingId = booking.getBookingId();
+        long deadline = booking.getRequestedAt().toEpochMilli() + timeoutMillis;
+        wheel.schedule(Math.max(0, deadline - System.currentTimeMillis()), () -> expire(bookingId));
+    }
+
+    private void expire(String bookingId) {
+        bookingRepository.findById(bookingId).ifPresent(b -> {
+            if (bookingRepository.transition(b, BookingStatus.PENDING, BookingStatus.CANCELLED)) {
+                mutationLog.bookingStatusChanged(b);
+            }
+        });
+    }
+
+    @Override
+    public synchronized void close() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+}
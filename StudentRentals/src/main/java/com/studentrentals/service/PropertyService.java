@@ -3,21 +3,31 @@ package com.studentrentals.service;
 import com.studentrentals.model.property.Property;
 import com.studentrentals.model.property.Room;
 import com.studentrentals.model.property.RoomType;
+import com.studentrentals.persistence.MutationLog;
 import com.studentrentals.repository.PropertyRepository;
 import com.studentrentals.repository.RoomRepository;
 import com.studentrentals.util.IdGenerator;
+import com.studentrentals.util.OccupancyCalendar;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 
 public class PropertyService {
 
     private final PropertyRepository propertyRepository;
     private final RoomRepository roomRepository;
+    private final MutationLog mutationLog;
 
     public PropertyService(PropertyRepository propertyRepository, RoomRepository roomRepository) {
+        this(propertyRepository, roomRepository, MutationLog.NONE);
+    }
+
+    public PropertyService(PropertyRepository propertyRepository, RoomRepository roomRepository,
+                           MutationLog mutationLog) {
         this.propertyRepository = propertyRepository;
         this.roomRepository = roomRepository;
+        this.mutationLog = mutationLog;
     }
 
     public Property createProperty(String ownerId, String address, String city, String description) {
@@ -34,6 +44,7 @@ public class PropertyService {
                 description.trim()
         );
         propertyRepository.save(property);
+        mutationLog.propertySaved(property);
         return property;
     }
 
@@ -49,7 +60,7 @@ public class PropertyService {
         // NOTE: changing city would require re-indexing all rooms in RoomRepository.
         // To keep things simple (and safe), we allow city update ONLY if property has no rooms.
         if (newCity != null && !newCity.isBlank() && !newCity.trim().equals(property.getCity())) {
-            if (!property.getRooms().isEmpty()) {
+            if (!property.getRoomIds().isEmpty()) {
                 throw new IllegalArgumentException("Cannot change city when property has rooms (keep city fixed).");
             }
             property.setCity(newCity.trim());
@@ -58,6 +69,8 @@ public class PropertyService {
         if (newAddress != null && !newAddress.isBlank()) property.setAddress(newAddress.trim());
         if (newDescription != null) property.setDescription(newDescription.trim());
 
+        propertyRepository.update(property);
+        mutationLog.propertySaved(property);
         return property;
     }
 
@@ -70,11 +83,12 @@ public class PropertyService {
         }
 
         // remove all rooms from repository index first
-        for (Room r : property.getRooms()) {
-            roomRepository.delete(property.getCity(), r.getRoomId());
+        for (String roomId : property.getRoomIds()) {
+            roomRepository.delete(property.getCity(), roomId);
         }
 
         propertyRepository.delete(ownerId, propertyId);
+        mutationLog.propertyDeleted(ownerId, propertyId);
     }
 
     public Room addRoomToProperty(String ownerId, String propertyId,
@@ -104,8 +118,9 @@ public class PropertyService {
                 availableTo
         );
 
-        property.addRoom(room);
+        property.addRoom(roomId);
         roomRepository.save(property.getCity(), room);
+        mutationLog.roomSaved(room);
 
         return room;
     }
@@ -120,25 +135,32 @@ public class PropertyService {
             throw new IllegalArgumentException("You do not own this property");
         }
 
-        Room room = property.findRoom(roomId)
-                .orElseThrow(() -> new IllegalArgumentException("Room not found in this property"));
-
-        // Apply partial updates
-        if (newType != null) room.setType(newType);
-        if (newMonthlyRent != null) {
-            if (newMonthlyRent <= 0) throw new IllegalArgumentException("Monthly rent must be > 0");
-            room.setMonthlyRent(newMonthlyRent);
+        if (!property.hasRoom(roomId)) {
+            throw new IllegalArgumentException("Room not found in this property");
         }
-        if (newAmenities != null) room.setAmenities(newAmenities);
-
-        if (newAvailableFrom != null) room.setAvailableFrom(newAvailableFrom);
-        if (newAvailableTo != null) room.setAvailableTo(newAvailableTo);
+        Room room = roomRepository.findById(roomId)
+                .orElseThrow(() -> new IllegalArgumentException("Room not found"));
 
-        if (room.getAvailableTo().isBefore(room.getAvailableFrom())) {
+        // Validate before mutating so a rejected update leaves room and indexes untouched
+        if (newMonthlyRent != null && newMonthlyRent <= 0) {
+            throw new IllegalArgumentException("Monthly rent must be > 0");
+        }
+        LocalDate from = newAvailableFrom != null ? newAvailableFrom : room.getAvailableFrom();
+        LocalDate to = newAvailableTo != null ? newAvailableTo : room.getAvailableTo();
+        if (to.isBefore(from)) {
             throw new IllegalArgumentException("availableTo must be after availableFrom");
         }
 
-        // RoomRepository stores same object reference; no need to re-save unless city changes.
+        // Apply partial updates
+        if (newType != null) room.setType(newType);
+        if (newMonthlyRent != null) room.setMonthlyRent(newMonthlyRent);
+        if (newAmenities != null) room.setAmenities(newAmenities);
+        room.setAvailableFrom(from);
+        room.setAvailableTo(to);
+
+        // The room may be a detached view; update() stores the change and refreshes the secondary indexes.
+        roomRepository.update(property.getCity(), room);
+        mutationLog.roomSaved(room);
         return room;
     }
 
@@ -154,12 +176,43 @@ public class PropertyService {
         if (!removed) throw new IllegalArgumentException("Room not found in this property");
 
         roomRepository.delete(property.getCity(), roomId);
+        mutationLog.roomDeleted(propertyId, roomId);
+    }
+
+    // Share of the room's availability window covered by accepted bookings (0.0 - 1.0)
+    public double occupancyRate(String ownerId, String propertyId, String roomId) {
+        return ownedRoomCalendar(ownerId, propertyId, roomId).occupancyRate();
+    }
+
+    // Days in the given month that are inside the availability window and not booked
+    public int freeNights(String ownerId, String propertyId, String roomId, YearMonth month) {
+        if (month == null) throw new IllegalArgumentException("Month required");
+        return ownedRoomCalendar(ownerId, propertyId, roomId).freeNights(month);
     }
 
     public List<Property> viewOwnerProperties(String ownerId) {
         return propertyRepository.findByOwnerId(ownerId);
     }
 
+    public List<Room> viewRooms(Property property) {
+        return roomRepository.findAllById(property.getRoomIds());
+    }
+
+    private OccupancyCalendar ownedRoomCalendar(String ownerId, String propertyId, String roomId) {
+        Property property = propertyRepository.findById(propertyId)
+                .orElseThrow(() -> new IllegalArgumentException("Property not found"));
+
+        if (!property.getOwnerId().equals(ownerId)) {
+            throw new IllegalArgumentException("You do not own this property");
+        }
+        if (!property.hasRoom(roomId)) {
+            throw new IllegalArgumentException("Room not found in this property");
+        }
+
+        return roomRepository.findCalendar(roomId)
+                .orElseThrow(() -> new IllegalArgumentException("Room not found"));
+    }
+
     private void validateRoom(RoomType type, double monthlyRent, LocalDate availableFrom, LocalDate availableTo) {
         if (type == null) throw new IllegalArgumentException("Room type required");
         if (monthlyRent <= 0) throw new IllegalArgumentException("Monthly rent must be > 0");
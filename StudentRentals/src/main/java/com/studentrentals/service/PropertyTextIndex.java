@@ -0,0 +1,290 @@
+package com.studentrentals.service;
+
+import com.studentrentals.model.property.Property;
+import com.studentrentals.repository.PropertyListener;
+import com.studentrentals.repository.PropertyRepository;
+
+import java.util.*;
+
+// Positional inverted index over property address and description, kept current through
+// PropertyListener: a save or removal only touches the postings of that property's own terms.
+// Queries are scored with BM25 (k1 = 1.2, b = 0.75). A property matches when it contains every "quoted
+// phrase" (its words at consecutive positions) and at least one unquoted word, if there are any; every
+// matched query term adds to the score. Stop words are neither indexed nor scored but keep their
+// positions, so "garden of flat" does not match "garden flat". Address and description are indexed as
+// one token stream with a gap between them, so a phrase never spans the two fields.
+public class PropertyTextIndex implements PropertyListener {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int FIELD_GAP = 1000;
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "the", "of", "in", "on", "to", "with", "for", "at", "is");
+
+    // One term's postings: documents in ascending order (so phrase checks merge them sequentially),
+    // each with its sorted positions. Doc ids are mostly appended, so inserts are mostly at the end.
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[][] positions = new int[4][];
+        int size;
+
+        void add(int doc, int[] pos) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            int at = size == 0 || docs[size - 1] < doc ? size : -Arrays.binarySearch(docs, 0, size, doc) - 1;
+            System.arraycopy(docs, at, docs, at + 1, size - at);
+            System.arraycopy(positions, at, positions, at + 1, size - at);
+            docs[at] = doc;
+            positions[at] = pos;
+            size++;
+        }
+
+        void remove(int doc) {
+            int at = Arrays.binarySearch(docs, 0, size, doc);
+            if (at < 0) return;
+            System.arraycopy(docs, at + 1, docs, at, size - at - 1);
+            System.arraycopy(positions, at + 1, positions, at, size - at - 1);
+            size--;
+            positions[size] = null;
+        }
+    }
+
+    // A quoted phrase's indexed terms with their positions relative to the first one; stop words in the
+    // phrase only move the offsets of the terms after them
+    private record Phrase(String[] terms, int[] offsets) {}
+
+    // An indexed property; terms are kept to find its postings again on update or removal
+    private static final class Doc {
+        final String propertyId;
+        final int length;
+        final String[] terms;
+
+        Doc(String propertyId, int length, String[] terms) {
+            this.propertyId = propertyId;
+            this.length = length;
+            this.terms = terms;
+        }
+    }
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<String, Integer> docByPropertyId = new HashMap<>();
+    private final ArrayDeque<Integer> freeDocs = new ArrayDeque<>();
+    private Doc[] docs = new Doc[64];
+    private int docCount;
+    private int docSlots;
+    private long totalLength;
+    private long generation;
+
+    // Indexes the repository's current properties and subscribes to later changes
+    public static PropertyTextIndex attach(PropertyRepository propertyRepository) {
+        PropertyTextIndex index = new PropertyTextIndex();
+        for (Property p : propertyRepository.findAll()) index.propertySaved(p);
+        propertyRepository.addListener(index);
+        return index;
+    }
+
+    @Override
+    public synchronized void propertySaved(Property property) {
+        Integer existing = docByPropertyId.get(property.getPropertyId());
+        if (existing != null) unindex(existing);
+
+        int doc = existing != null ? existing : allocateDoc();
+        Map<String, List<Integer>> collected = new HashMap<>();
+        int length = tokenize(property.getAddress(), 0, collected);
+        length += tokenize(property.getDescription(), FIELD_GAP, collected);
+
+        for (Map.Entry<String, List<Integer>> e : collected.entrySet()) {
+            int[] pos = e.getValue().stream().mapToInt(Integer::intValue).toArray();
+            postings.computeIfAbsent(e.getKey(), k -> new Postings()).add(doc, pos);
+        }
+        docs[doc] = new Doc(property.getPropertyId(), length, collected.keySet().toArray(new String[0]));
+        docByPropertyId.put(property.getPropertyId(), doc);
+        docCount++;
+        totalLength += length;
+        generation++;
+    }
+
+    @Override
+    public synchronized void propertyRemoved(String propertyId) {
+        Integer doc = docByPropertyId.remove(propertyId);
+        if (doc == null) return;
+        unindex(doc);
+        docs[doc] = null;
+        freeDocs.push(doc);
+        generation++;
+    }
+
+    // Changes whenever any property's text changes; cached keyword results must include it
+    public synchronized long generation() {
+        return generation;
+    }
+
+    // propertyId -> BM25 score for every property that contains all quoted phrases and, unless the
+    // query is phrases only, at least one of its words. Empty if nothing matches; null if the query
+    // has nothing but stop words, which means no keyword filter at all.
+    public synchronized Map<String, Double> search(String query) {
+        Set<String> words = new LinkedHashSet<>();
+        List<Phrase> phrases = new ArrayList<>();
+        parseQuery(query, words, phrases);
+
+        Set<String> scored = new LinkedHashSet<>(words);
+        for (Phrase phrase : phrases) scored.addAll(Arrays.asList(phrase.terms()));
+        if (scored.isEmpty()) return null;
+
+        // Phrase filter first: candidates must contain every phrase
+        BitSet required = null;
+        for (Phrase phrase : phrases) {
+            BitSet found = phraseDocs(phrase);
+            if (required == null) required = found;
+            else required.and(found);
+            if (required.isEmpty()) return Map.of();
+        }
+
+        double avgLength = docCount == 0 ? 1 : (double) totalLength / docCount;
+        double[] score = new double[docSlots];
+        BitSet touched = new BitSet(docSlots);
+        BitSet wordHits = new BitSet(docSlots); // docs containing at least one unquoted word
+        for (String term : scored) {
+            Postings p = postings.get(term);
+            if (p == null) continue;
+            boolean word = words.contains(term);
+            double idf = Math.log(1 + (docCount - p.size + 0.5) / (p.size + 0.5));
+            for (int i = 0; i < p.size; i++) {
+                int doc = p.docs[i];
+                if (required != null && !required.get(doc)) continue;
+                int tf = p.positions[i].length;
+                double norm = K1 * (1 - B + B * docs[doc].length / avgLength);
+                score[doc] += idf * tf * (K1 + 1) / (tf + norm);
+                touched.set(doc);
+                if (word) wordHits.set(doc);
+            }
+        }
+
+        BitSet matched = words.isEmpty() ? touched : wordHits;
+        Map<String, Double> result = new HashMap<>(matched.cardinality() * 4 / 3 + 1);
+        for (int doc = matched.nextSetBit(0); doc >= 0; doc = matched.nextSetBit(doc + 1)) {
+            result.put(docs[doc].propertyId, score[doc]);
+        }
+        return result;
+    }
+
+    // Lower-cased letter/digit runs, stop words included so positions stay true to the text
+    static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+            } else if (sb.length() > 0) {
+                tokens.add(sb.toString());
+                sb.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    private static void parseQuery(String query, Set<String> words, List<Phrase> phrases) {
+        if (query == null) return;
+        String[] parts = query.split("\"", -1);
+        for (int i = 0; i < parts.length; i++) {
+            List<String> tokens = tokens(parts[i]);
+            if (i % 2 == 1) { // inside quotes
+                Phrase phrase = phrase(tokens);
+                if (phrase != null) phrases.add(phrase);
+            } else {
+                for (String t : tokens) {
+                    if (!STOP_WORDS.contains(t)) words.add(t);
+                }
+            }
+        }
+    }
+
+    // null if the phrase is only stop words
+    private static Phrase phrase(List<String> tokens) {
+        List<String> terms = new ArrayList<>();
+        int[] offsets = new int[tokens.size()];
+        int first = -1;
+        for (int i = 0; i < tokens.size(); i++) {
+            if (STOP_WORDS.contains(tokens.get(i))) continue;
+            if (first < 0) first = i;
+            offsets[terms.size()] = i - first;
+            terms.add(tokens.get(i));
+        }
+        return terms.isEmpty() ? null : new Phrase(terms.toArray(new String[0]), Arrays.copyOf(offsets, terms.size()));
+    }
+
+    // Documents where the phrase's terms occur at their offsets from the first term: a merge over the
+    // terms' doc-sorted postings, checking positions only in documents that contain every term
+    private BitSet phraseDocs(Phrase phrase) {
+        BitSet result = new BitSet(docSlots);
+        int n = phrase.terms().length;
+        Postings[] lists = new Postings[n];
+        for (int k = 0; k < n; k++) {
+            lists[k] = postings.get(phrase.terms()[k]);
+            if (lists[k] == null) return result;
+        }
+        int[] at = new int[n];
+        while (at[0] < lists[0].size) {
+            // advance every list to the largest current doc until they agree
+            int doc = lists[0].docs[at[0]];
+            boolean aligned = true;
+            for (int k = 1; k < n; k++) {
+                Postings p = lists[k];
+                while (at[k] < p.size && p.docs[at[k]] < doc) at[k]++;
+                if (at[k] == p.size) return result;
+                if (p.docs[at[k]] > doc) {
+                    aligned = false;
+                    int target = p.docs[at[k]];
+                    while (at[0] < lists[0].size && lists[0].docs[at[0]] < target) at[0]++;
+                    break;
+                }
+            }
+            if (!aligned) continue;
+            if (hasPhraseAt(lists, at, phrase.offsets())) result.set(doc);
+            at[0]++;
+        }
+        return result;
+    }
+
+    private static boolean hasPhraseAt(Postings[] lists, int[] at, int[] offsets) {
+        for (int start : lists[0].positions[at[0]]) {
+            boolean match = true;
+            for (int k = 1; k < lists.length && match; k++) {
+                match = Arrays.binarySearch(lists[k].positions[at[k]], start + offsets[k]) >= 0;
+            }
+            if (match) return true;
+        }
+        return false;
+    }
+
+    // Indexes the text's non-stop words at their true positions; returns how many there were
+    private int tokenize(String text, int offset, Map<String, List<Integer>> positions) {
+        List<String> tokens = tokens(text);
+        int length = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            if (STOP_WORDS.contains(tokens.get(i))) continue;
+            positions.computeIfAbsent(tokens.get(i), k -> new ArrayList<>()).add(offset + i);
+            length++;
+        }
+        return length;
+    }
+
+    private void unindex(int doc) {
+        for (String t : docs[doc].terms) {
+            Postings p = postings.get(t);
+            p.remove(doc);
+            if (p.size == 0) postings.remove(t);
+        }
+        totalLength -= docs[doc].length;
+        docCount--;
+    }
+
+    private int allocateDoc() {
+        if (!freeDocs.isEmpty()) return freeDocs.pop();
+        if (docSlots == docs.length) docs = Arrays.copyOf(docs, docSlots * 2);
+        return docSlots++;
+    }
+}
@@ -0,0 +1,54 @@
+package com.studentrentals.service;
+
+import com.studentrentals.util.RoaringBitmap;
+
+import java.util.*;
+
+// Bucketed index over one numeric room column: bucket (value / width, rounded down) -> room ordinals
+// (see RoomColumns). Bucket cardinalities are the planner's statistics for range predicates, and for a
+// narrow range the covered buckets are a candidate set. Both are supersets of the exact range, because
+// the edge buckets can hold values just outside it, so the column check still runs on the candidates.
+class RangeIndex {
+
+    private final double width;
+    private final TreeMap<Integer, RoaringBitmap> buckets = new TreeMap<>();
+
+    RangeIndex(double width) {
+        this.width = width;
+    }
+
+    void add(int ordinal, double value) {
+        buckets.computeIfAbsent(bucket(value), k -> new RoaringBitmap()).add(ordinal);
+    }
+
+    void remove(int ordinal, double value) {
+        int b = bucket(value);
+        RoaringBitmap rooms = buckets.get(b);
+        if (rooms == null) return;
+        rooms.remove(ordinal);
+        if (rooms.isEmpty()) buckets.remove(b);
+    }
+
+    // Rooms in the buckets overlapping [lo, hi]: an upper bound on the rooms the range matches
+    int estimate(double lo, double hi) {
+        if (hi < lo) return 0;
+        int n = 0;
+        for (RoaringBitmap rooms : covered(lo, hi)) n += rooms.cardinality();
+        return n;
+    }
+
+    // Sets the bits of every room in the buckets overlapping [lo, hi]
+    void fillCandidates(long[] mask, double lo, double hi) {
+        if (hi < lo) return;
+        for (RoaringBitmap rooms : covered(lo, hi)) rooms.orInto(mask);
+    }
+
+    private Collection<RoaringBitmap> covered(double lo, double hi) {
+        return buckets.subMap(bucket(lo), true, bucket(hi), true).values();
+    }
+
+    // Casts saturate, so infinite bounds land on the outermost buckets
+    private int bucket(double value) {
+        return (int) Math.floor(value / width);
+    }
+}
@@ -0,0 +1,534 @@
+package com.studentrentals.service;
+
+import com.studentrentals.model.property.Room;
+import com.studentrentals.model.property.RoomType;
+import com.studentrentals.repository.RoomListener;
+import com.studentrentals.repository.RoomRepository;
+import com.studentrentals.util.RoaringBitmap;
+import com.studentrentals.util.StringDictionary;
+
+import java.time.LocalDate;
+import java.util.*;
+
+// Struct-of-arrays copy of the searchable room fields, kept current through RoomListener. Rooms occupy
+// dense ordinals 0..size-1 (a removal moves the last room into the hole), so a scan is a straight pass over
+// primitive arrays. Equality predicates (city, type, amenities) have Roaring bitmaps over those ordinals;
+// rent and the availability dates have bucketed RangeIndexes. A query is planned first: every predicate
+// gets a row estimate from those statistics, the most selective one with a usable index becomes the
+// access path (otherwise a full scan), and the rest narrow a bitmask (one bit per ordinal) in order of
+// estimated selectivity, skipping words that are already all-zero. Keyword queries arrive as property
+// scores (PropertyTextIndex) and drop rooms whose property did not match.
+public class RoomColumns implements RoomListener {
+
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+    private static final double RENT_BUCKET = 25;
+    private static final double DAY_BUCKET = 7;
+    // A range predicate drives the plan only if its buckets hold at most 1/4 of the rooms; wider unions
+    // cost more than a plain scan of the column
+    private static final int RANGE_ACCESS_MAX_SHARE = 4;
+    private static final int SPARSE_WORD_BITS = 8;
+
+    private final StringDictionary cities = new StringDictionary();
+    private final Map<String, Integer> ordinalByRoomId = new HashMap<>();
+
+    // Bitmap indexes: ordinals per city id, per room type and per amenity term
+    private final List<RoaringBitmap> roomsByCity = new ArrayList<>();
+    private final RoaringBitmap[] roomsByType = new RoaringBitmap[ROOM_TYPES.length];
+    private final AmenityIndex amenities = new AmenityIndex();
+    private final RangeIndex rentIndex = new RangeIndex(RENT_BUCKET);
+    private final RangeIndex fromIndex = new RangeIndex(DAY_BUCKET);
+    private final RangeIndex toIndex = new RangeIndex(DAY_BUCKET);
+
+    private String[] roomId = new String[64];
+    private String[] propertyId = new String[64];
+    private double[] rent = new double[64];
+    private int[] fromEpochDay = new int[64];
+    private int[] toEpochDay = new int[64];
+    private byte[] type = new byte[64];
+    private int[] cityId = new int[64];
+    private String[][] amenityTerms = new String[64][];
+    private int size;
+
+    // Change counters for result caches: every change bumps the global counter and stamps its value on
+    // the city (or cities) it touched, so a city's generation moves exactly when its rooms change
+    private long generation;
+    private long[] cityGeneration = new long[16];
+
+    public RoomColumns() {
+        for (int i = 0; i < roomsByType.length; i++) roomsByType[i] = new RoaringBitmap();
+    }
+
+    // Builds the columns from the repository's current rooms and subscribes to later changes
+    public static RoomColumns attach(RoomRepository roomRepository) {
+        RoomColumns columns = new RoomColumns();
+        for (Room r : roomRepository.findAll()) columns.roomSaved(r.getCity(), r);
+        roomRepository.addListener(columns);
+        return columns;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // Ids of rooms matching the criteria's listing predicates, in ordinal order (occupancy is not checked).
+    // Date predicate: [start, end] must lie within the room's availability window.
+    // propertyScores: null = no keyword filter, otherwise only rooms of the properties in it.
+    public synchronized List<String> match(SearchCriteria criteria, Map<String, Double> propertyScores) {
+        return match(criteria, propertyScores, null);
+    }
+
+    // As above, also counting every matched room into facets (null = no facets) in the same pass over the
+    // mask. Counts go into primitive arrays indexed by type, city id and price bucket and are handed to
+    // facets once at the end; amenity counts are each term's posting bitmap popcounted against the mask.
+    public synchronized List<String> match(SearchCriteria criteria, Map<String, Double> propertyScores, SearchFacets facets) {
+        long[] mask = execute(plan(criteria, propertyScores));
+        List<String> ids = new ArrayList<>();
+        int[] byType = new int[ROOM_TYPES.length];
+        int[] byCity = new int[facets == null ? 0 : cities.size()];
+        int[] byBucket = new int[facets == null ? 0 : 16];
+        for (int w = 0; w < mask.length; w++) {
+            long bits = mask[w];
+            while (bits != 0) {
+                int o = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                ids.add(roomId[o]);
+                if (facets == null) continue;
+                byType[type[o]]++;
+                byCity[cityId[o]]++;
+                int bucket = SearchFacets.priceBucket(rent[o]) / SearchFacets.PRICE_BUCKET_WIDTH;
+                if (bucket >= byBucket.length) byBucket = Arrays.copyOf(byBucket, Math.max(bucket + 1, byBucket.length * 2));
+                byBucket[bucket]++;
+            }
+        }
+        if (facets != null) {
+            facets.addTotal(ids.size());
+            for (int t = 0; t < byType.length; t++) if (byType[t] > 0) facets.addType(ROOM_TYPES[t], byType[t]);
+            for (int c = 0; c < byCity.length; c++) if (byCity[c] > 0) facets.addCity(cities.get(c), byCity[c]);
+            for (int b = 0; b < byBucket.length; b++) {
+                if (byBucket[b] > 0) facets.addPriceBucket(b * SearchFacets.PRICE_BUCKET_WIDTH, byBucket[b]);
+            }
+            amenities.countInto(mask, facets);
+        }
+        return ids;
+    }
+
+    // Same predicates as match(), counted by popcount without collecting ids
+    public synchronized int count(SearchCriteria criteria, Map<String, Double> propertyScores) {
+        int n = 0;
+        for (long word : execute(plan(criteria, propertyScores))) n += Long.bitCount(word);
+        return n;
+    }
+
+    // The first limit matching rooms in sort order that come strictly after the cursor (null = from the
+    // start). A bounded max-heap keeps only the best limit ordinals seen so far, so the cost is one pass
+    // over the mask plus O(matches * log limit), and the full result set is never collected or sorted.
+    public synchronized List<SearchCursor> top(SearchCriteria criteria, Map<String, Double> propertyScores,
+                                               SearchSort sort, SearchCursor after, int limit) {
+        long[] mask = execute(plan(criteria, propertyScores));
+        Comparator<Integer> order = Comparator.<Integer>comparingDouble(o -> sortKey(sort, o, propertyScores))
+                .thenComparing(o -> roomId[o]);
+        PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, order.reversed());
+        for (int w = 0; w < mask.length; w++) {
+            long bits = mask[w];
+            while (bits != 0) {
+                int o = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (after != null && !after.precedes(sortKey(sort, o, propertyScores), roomId[o])) continue;
+                if (heap.size() < limit) {
+                    heap.add(o);
+                } else if (order.compare(o, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(o);
+                }
+            }
+        }
+        SearchCursor[] hits = new SearchCursor[heap.size()];
+        for (int i = hits.length - 1; i >= 0; i--) {
+            int o = heap.poll();
+            hits[i] = new SearchCursor(sort, sortKey(sort, o, propertyScores), roomId[o]);
+        }
+        return Arrays.asList(hits);
+    }
+
+    // The plan match/count/top would use for these criteria, with the statistics' row estimates
+    public synchronized SearchPlan explain(SearchCriteria criteria, Map<String, Double> propertyScores) {
+        Plan plan = plan(criteria, propertyScores);
+        List<SearchPlan.Step> steps = new ArrayList<>();
+        if (plan.indexed() == 0) steps.add(new SearchPlan.Step("full scan", "all listed rooms", size, size));
+        double rows = size;
+        for (int i = 0; i < plan.order().size(); i++) {
+            Predicate p = plan.order().get(i);
+            String operation;
+            if (i < plan.indexed()) operation = p.bitmap() == null ? "range index" : i == 0 ? "bitmap index" : "bitmap AND";
+            else operation = p.bitmap() != null ? "mask AND" : "column filter";
+            if (p.estimate >= 0) rows = size == 0 ? 0 : rows * p.estimate / size;
+            steps.add(new SearchPlan.Step(operation, p.description, p.estimate, p.estimate < 0 ? -1 : (int) Math.round(rows)));
+        }
+        return new SearchPlan(size, steps);
+    }
+
+    // Generation covering every result a query for this city can return. Blank city: any change anywhere.
+    // A city with no rooms yet falls back to the global counter, which its first room will bump.
+    public synchronized long generation(String city) {
+        if (city == null || city.isBlank()) return generation;
+        int id = cities.find(norm(city));
+        return id < 0 || id >= cityGeneration.length ? generation : cityGeneration[id];
+    }
+
+    private double sortKey(SearchSort sort, int ordinal, Map<String, Double> propertyScores) {
+        return switch (sort) {
+            case RENT_ASCENDING -> rent[ordinal];
+            case RENT_DESCENDING -> -rent[ordinal];
+            case SOONEST_AVAILABLE -> fromEpochDay[ordinal];
+            case RELEVANCE -> propertyScores == null ? 0 : -propertyScores.getOrDefault(propertyId[ordinal], 0.0);
+        };
+    }
+
+    @Override
+    public synchronized void roomSaved(String city, Room room) {
+        Integer ordinal = ordinalByRoomId.get(room.getRoomId());
+        if (ordinal == null) {
+            ensureCapacity(size + 1);
+            ordinal = size++;
+            ordinalByRoomId.put(room.getRoomId(), ordinal);
+            roomId[ordinal] = room.getRoomId();
+            propertyId[ordinal] = room.getPropertyId();
+        } else {
+            unindexBitmaps(ordinal);
+            bump(cityId[ordinal]);
+        }
+        rent[ordinal] = room.getMonthlyRent();
+        fromEpochDay[ordinal] = (int) room.getAvailableFrom().toEpochDay();
+        toEpochDay[ordinal] = (int) room.getAvailableTo().toEpochDay();
+        type[ordinal] = (byte) room.getType().ordinal();
+        cityId[ordinal] = cities.intern(norm(city));
+        amenityTerms[ordinal] = AmenityIndex.terms(room.getAmenities());
+        indexBitmaps(ordinal);
+        bump(cityId[ordinal]);
+    }
+
+    @Override
+    public synchronized void roomRemoved(String id) {
+        Integer ordinal = ordinalByRoomId.remove(id);
+        if (ordinal == null) return;
+        unindexBitmaps(ordinal);
+        bump(cityId[ordinal]);
+        int last = --size;
+        if (ordinal != last) {
+            unindexBitmaps(last);
+            roomId[ordinal] = roomId[last];
+            propertyId[ordinal] = propertyId[last];
+            rent[ordinal] = rent[last];
+            fromEpochDay[ordinal] = fromEpochDay[last];
+            toEpochDay[ordinal] = toEpochDay[last];
+            type[ordinal] = type[last];
+            cityId[ordinal] = cityId[last];
+            amenityTerms[ordinal] = amenityTerms[last];
+            ordinalByRoomId.put(roomId[ordinal], ordinal);
+            indexBitmaps(ordinal);
+            bump(cityId[ordinal]); // its position in ordinal-ordered results changed
+        }
+        roomId[last] = null;
+        propertyId[last] = null;
+        amenityTerms[last] = null;
+    }
+
+    @Override
+    public synchronized void roomMoved(String id, String newCity) {
+        Integer ordinal = ordinalByRoomId.get(id);
+        if (ordinal == null) return;
+        roomsByCity.get(cityId[ordinal]).remove(ordinal);
+        bump(cityId[ordinal]);
+        cityId[ordinal] = cities.intern(norm(newCity));
+        cityBitmap(cityId[ordinal]).add(ordinal);
+        bump(cityId[ordinal]);
+    }
+
+    @Override
+    public synchronized void roomBooked(String id) {
+        Integer ordinal = ordinalByRoomId.get(id);
+        if (ordinal != null) bump(cityId[ordinal]);
+    }
+
+    private void bump(int city) {
+        generation++;
+        if (city >= cityGeneration.length) cityGeneration = Arrays.copyOf(cityGeneration, Math.max(city + 1, cityGeneration.length * 2));
+        cityGeneration[city] = generation;
+    }
+
+    // One listing predicate as the planner sees it: a row estimate from the index statistics, an exact
+    // bitmap or a range index if it has one, and a filter that ANDs it into a scan mask
+    private abstract class Predicate {
+        final String description;
+        final int estimate; // rooms matching this predicate alone; -1 = not estimated
+
+        Predicate(String description, int estimate) {
+            this.description = description;
+            this.estimate = estimate;
+        }
+
+        RoaringBitmap bitmap() { return null; }
+
+        boolean hasRangeIndex() { return false; }
+
+        // Superset of the matching rooms from the range index
+        void fillCandidates(long[] mask) { }
+
+        abstract void filter(long[] mask);
+    }
+
+    private final class BitmapPredicate extends Predicate {
+        private final RoaringBitmap rooms;
+
+        BitmapPredicate(String description, RoaringBitmap rooms) {
+            super(description, rooms.cardinality());
+            this.rooms = rooms;
+        }
+
+        @Override
+        RoaringBitmap bitmap() { return rooms; }
+
+        @Override
+        void filter(long[] mask) {
+            long[] words = rooms.toWords(size);
+            for (int w = 0; w < mask.length; w++) mask[w] &= words[w];
+        }
+    }
+
+    private final class RentPredicate extends Predicate {
+        private final double min;
+        private final double max;
+
+        RentPredicate(String description, double min, double max) {
+            super(description, rentIndex.estimate(min, max));
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        boolean hasRangeIndex() { return true; }
+
+        @Override
+        void fillCandidates(long[] mask) { rentIndex.fillCandidates(mask, min, max); }
+
+        @Override
+        void filter(long[] mask) { filterRent(mask, min, max); }
+    }
+
+    // Window within availability: from <= start and to >= end. Either side alone bounds it, so the
+    // estimate and the candidates come from whichever side's buckets hold fewer rooms.
+    private final class WindowPredicate extends Predicate {
+        private final int start;
+        private final int end;
+        private final boolean byFrom;
+
+        WindowPredicate(String description, int start, int end, int fromEstimate, int toEstimate) {
+            super(description, Math.min(fromEstimate, toEstimate));
+            this.start = start;
+            this.end = end;
+            this.byFrom = fromEstimate <= toEstimate;
+        }
+
+        @Override
+        boolean hasRangeIndex() { return true; }
+
+        @Override
+        void fillCandidates(long[] mask) {
+            if (byFrom) fromIndex.fillCandidates(mask, Integer.MIN_VALUE, start);
+            else toIndex.fillCandidates(mask, end, Integer.MAX_VALUE);
+        }
+
+        @Override
+        void filter(long[] mask) { filterWindow(mask, start, end); }
+    }
+
+    // Only visits surviving rooms, so it is always applied last
+    private final class KeywordPredicate extends Predicate {
+        private final Map<String, Double> propertyScores;
+
+        KeywordPredicate(Map<String, Double> propertyScores) {
+            super("keywords (" + propertyScores.size() + " properties)", -1);
+            this.propertyScores = propertyScores;
+        }
+
+        @Override
+        void filter(long[] mask) { filterProperties(mask, propertyScores); }
+    }
+
+    // Predicates in the order they are applied; the first `indexed` of them are answered from indexes
+    // (0 = full scan)
+    private record Plan(List<Predicate> order, int indexed) { }
+
+    private Plan plan(SearchCriteria criteria, Map<String, Double> propertyScores) {
+        CompiledCriteria q = CompiledCriteria.of(criteria);
+        List<Predicate> order = new ArrayList<>();
+        if (!q.city.isEmpty()) {
+            int id = cities.find(q.city);
+            order.add(new BitmapPredicate("city = " + q.city, id < 0 ? new RoaringBitmap() : roomsByCity.get(id)));
+        }
+        if (q.type != CompiledCriteria.ANY_TYPE) {
+            order.add(new BitmapPredicate("type = " + ROOM_TYPES[q.type], roomsByType[q.type]));
+        }
+        for (String t : q.required) {
+            order.add(new BitmapPredicate("amenity = " + t, amenities.postings(t)));
+        }
+        if (q.optional.length > 0) {
+            order.add(new BitmapPredicate("any amenity of " + String.join(",", q.optional), amenities.anyOf(q.optional)));
+        }
+
+        if (q.hasRent) {
+            String description = q.minRent == Double.NEGATIVE_INFINITY ? "rent <= " + q.maxRent
+                    : q.maxRent == Double.POSITIVE_INFINITY ? "rent >= " + q.minRent
+                    : "rent " + q.minRent + ".." + q.maxRent;
+            order.add(new RentPredicate(description, q.minRent, q.maxRent));
+        }
+        if (q.emptyWindow) {
+            order.add(new BitmapPredicate("available (move-out before move-in)", new RoaringBitmap()));
+        } else if (q.hasWindow) {
+            order.add(new WindowPredicate("available " + LocalDate.ofEpochDay(q.startDay) + ".." + LocalDate.ofEpochDay(q.endDay),
+                    q.startDay, q.endDay,
+                    fromIndex.estimate(Integer.MIN_VALUE, q.startDay), toIndex.estimate(q.endDay, Integer.MAX_VALUE)));
+        }
+
+        order.sort(Comparator.comparingInt(p -> p.estimate));
+        if (propertyScores != null) order.add(new KeywordPredicate(propertyScores));
+
+        // Access path: the most selective predicate if it has an index worth using, plus (for bitmaps) the
+        // bitmap predicates right behind it, intersected smallest-first before anything is scanned
+        int indexed = 0;
+        if (!order.isEmpty()) {
+            Predicate first = order.get(0);
+            if (first.bitmap() != null) {
+                indexed = 1;
+                while (indexed < order.size() && order.get(indexed).bitmap() != null) indexed++;
+            } else if (first.hasRangeIndex() && first.estimate <= size / RANGE_ACCESS_MAX_SHARE) {
+                indexed = 1;
+            }
+        }
+        return new Plan(order, indexed);
+    }
+
+    private long[] execute(Plan plan) {
+        List<Predicate> order = plan.order();
+        int next = plan.indexed();
+        long[] mask;
+        if (next == 0) {
+            mask = allOnes(size);
+        } else if (order.get(0).bitmap() != null) {
+            RoaringBitmap selected = order.get(0).bitmap();
+            for (int i = 1; i < next && !selected.isEmpty(); i++) selected = RoaringBitmap.and(selected, order.get(i).bitmap());
+            if (selected.isEmpty()) return new long[0];
+            mask = selected.toWords(size);
+        } else {
+            mask = new long[(size + 63) >>> 6];
+            order.get(0).fillCandidates(mask);
+            next = 0; // bucket candidates are a superset, so the range predicate still filters them
+        }
+        for (int i = next; i < order.size(); i++) order.get(i).filter(mask);
+        return mask;
+    }
+
+    private void indexBitmaps(int ordinal) {
+        cityBitmap(cityId[ordinal]).add(ordinal);
+        roomsByType[type[ordinal]].add(ordinal);
+        amenities.add(ordinal, amenityTerms[ordinal]);
+        rentIndex.add(ordinal, rent[ordinal]);
+        fromIndex.add(ordinal, fromEpochDay[ordinal]);
+        toIndex.add(ordinal, toEpochDay[ordinal]);
+    }
+
+    private void unindexBitmaps(int ordinal) {
+        roomsByCity.get(cityId[ordinal]).remove(ordinal);
+        roomsByType[type[ordinal]].remove(ordinal);
+        amenities.remove(ordinal, amenityTerms[ordinal]);
+        rentIndex.remove(ordinal, rent[ordinal]);
+        fromIndex.remove(ordinal, fromEpochDay[ordinal]);
+        toIndex.remove(ordinal, toEpochDay[ordinal]);
+    }
+
+    private RoaringBitmap cityBitmap(int id) {
+        while (roomsByCity.size() <= id) roomsByCity.add(new RoaringBitmap());
+        return roomsByCity.get(id);
+    }
+
+    // Each filter builds the word's match bits branch-free and ANDs them into the mask. Words with only a
+    // few candidates left (typical after an index access path, whose ordinals are scattered) just test
+    // those bits instead of all 64 lanes.
+
+    private void filterRent(long[] mask, double min, double max) {
+        for (int w = 0; w < mask.length; w++) {
+            if (mask[w] == 0) continue;
+            int base = w << 6;
+            if (Long.bitCount(mask[w]) <= SPARSE_WORD_BITS) {
+                for (long bits = mask[w]; bits != 0; bits &= bits - 1) {
+                    int j = Long.numberOfTrailingZeros(bits);
+                    double r = rent[base + j];
+                    if (!(r >= min && r <= max)) mask[w] &= ~(1L << j);
+                }
+                continue;
+            }
+            int n = Math.min(64, size - base);
+            long bits = 0;
+            for (int j = 0; j < n; j++) {
+                double r = rent[base + j];
+                bits |= (r >= min & r <= max ? 1L : 0L) << j;
+            }
+            mask[w] &= bits;
+        }
+    }
+
+    private void filterWindow(long[] mask, int start, int end) {
+        for (int w = 0; w < mask.length; w++) {
+            if (mask[w] == 0) continue;
+            int base = w << 6;
+            if (Long.bitCount(mask[w]) <= SPARSE_WORD_BITS) {
+                for (long bits = mask[w]; bits != 0; bits &= bits - 1) {
+                    int j = Long.numberOfTrailingZeros(bits);
+                    if (!(fromEpochDay[base + j] <= start && toEpochDay[base + j] >= end)) mask[w] &= ~(1L << j);
+                }
+                continue;
+            }
+            int n = Math.min(64, size - base);
+            long bits = 0;
+            for (int j = 0; j < n; j++) {
+                bits |= (fromEpochDay[base + j] <= start & toEpochDay[base + j] >= end ? 1L : 0L) << j;
+            }
+            mask[w] &= bits;
+        }
+    }
+
+    private void filterProperties(long[] mask, Map<String, Double> propertyScores) {
+        for (int w = 0; w < mask.length; w++) {
+            long bits = mask[w];
+            while (bits != 0) {
+                int j = Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (!propertyScores.containsKey(propertyId[(w << 6) + j])) mask[w] &= ~(1L << j);
+            }
+        }
+    }
+
+    private static long[] allOnes(int bits) {
+        long[] mask = new long[(bits + 63) >>> 6];
+        Arrays.fill(mask, -1L);
+        if ((bits & 63) != 0) mask[mask.length - 1] = (1L << (bits & 63)) - 1;
+        return mask;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= roomId.length) return;
+        int capacity = Math.max(needed, roomId.length * 2);
+        roomId = Arrays.copyOf(roomId, capacity);
+        propertyId = Arrays.copyOf(propertyId, capacity);
+        rent = Arrays.copyOf(rent, capacity);
+        fromEpochDay = Arrays.copyOf(fromEpochDay, capacity);
+        toEpochDay = Arrays.copyOf(toEpochDay, capacity);
+        type = Arrays.copyOf(type, capacity);
+        cityId = Arrays.copyOf(cityId, capacity);
+        amenityTerms = Arrays.copyOf(amenityTerms, capacity);
+    }
+
+    private String norm(String city) {
+        return city == null ? "" : city.toLowerCase().trim();
+    }
+}
@@ -0,0 +1,18 @@
+package com.studentrentals.service;
+
+// A student's standing search; new or changed listings matching it are queued for the student
+public class SavedSearch {
+    private final String subscriptionId;
+    private final String studentId;
+    private final SearchCriteria criteria;
+
+    SavedSearch(String subscriptionId, String studentId, SearchCriteria criteria) {
+        this.subscriptionId = subscriptionId;
+        this.studentId = studentId;
+        this.criteria = criteria;
+    }
+
+    public String getSubscriptionId() { return subscriptionId; }
+    public String getStudentId() { return studentId; }
+    public SearchCriteria getCriteria() { return criteria; }
+}
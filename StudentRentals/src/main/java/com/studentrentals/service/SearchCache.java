@@ -0,0 +1,94 @@
+package com.studentrentals.service;
+
+import java.util.*;
+
+// Bounded LRU of search results (room ids, not Room objects) keyed by the normalised query. Each entry
+// carries the RoomColumns generation it was computed at; once that generation has moved on the entry
+// is stale and the lookup is a miss, so a change to any room a query could return always retires it.
+class SearchCache {
+
+    static final class Entry {
+        final long generation;
+        final List<String> roomIds;
+        final SearchCursor next;
+        final SearchFacets facets; // only for searchWithFacets entries
+
+        Entry(long generation, List<String> roomIds, SearchCursor next, SearchFacets facets) {
+            this.generation = generation;
+            this.roomIds = List.copyOf(roomIds);
+            this.next = next;
+            this.facets = facets;
+        }
+    }
+
+    private final int capacity;
+    private final LinkedHashMap<String, Entry> entries;
+    private long hits;
+    private long misses;
+    private long stale;
+
+    SearchCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > SearchCache.this.capacity;
+            }
+        };
+    }
+
+    // null on a miss (absent, or computed before the given generation)
+    synchronized Entry get(String key, long generation) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.generation == generation) {
+            hits++;
+            return entry;
+        }
+        if (entry != null) {
+            entries.remove(key);
+            stale++;
+        }
+        misses++;
+        return null;
+    }
+
+    // generation must be read before the result was computed, so a change racing with the
+    // computation leaves the entry already stale rather than hiding the change
+    synchronized void put(String key, long generation, List<String> roomIds, SearchCursor next) {
+        put(key, generation, roomIds, next, null);
+    }
+
+    synchronized void put(String key, long generation, List<String> roomIds, SearchCursor next, SearchFacets facets) {
+        if (capacity > 0) entries.put(key, new Entry(generation, roomIds, next, facets));
+    }
+
+    synchronized long hits() { return hits; }
+    synchronized long misses() { return misses; }
+    synchronized long staleEvictions() { return stale; }
+    synchronized int size() { return entries.size(); }
+
+    // Same key for queries that differ only in case, spacing or amenity order; sort/cursor/limit are
+    // null/0 for unpaged searches and null/-1 for unpaged searches with facets
+    static String key(SearchCriteria c, SearchSort sort, SearchCursor after, int limit) {
+        StringJoiner key = new StringJoiner("\u001F");
+        key.add(c.getCity() == null ? "" : c.getCity().toLowerCase().trim());
+        key.add(String.valueOf(c.getMinPrice()));
+        key.add(String.valueOf(c.getMaxPrice()));
+        key.add(String.valueOf(c.getStartDate()));
+        key.add(String.valueOf(c.getEndDate()));
+        key.add(String.valueOf(c.getRoomType()));
+        key.add(sortedTerms(c.getRequiredAmenities()));
+        key.add(sortedTerms(c.getOptionalAmenities()));
+        key.add(c.getKeywords() == null ? "" : c.getKeywords().toLowerCase());
+        key.add(String.valueOf(sort));
+        key.add(after == null ? "" : after.getKey() + "/" + after.getRoomId());
+        key.add(String.valueOf(limit));
+        return key.toString();
+    }
+
+    private static String sortedTerms(List<String> amenities) {
+        String[] terms = AmenityIndex.terms(amenities);
+        Arrays.sort(terms);
+        return String.join(",", terms);
+    }
+}
@@ -3,6 +3,7 @@ package com.studentrentals.service;
 import com.studentrentals.model.property.RoomType;
 
 import java.time.LocalDate;
+import java.util.List;
 
 public class SearchCriteria {
     private final String city;              // nullable/blank means any
@@ -11,16 +12,35 @@ public class SearchCriteria {
     private final LocalDate startDate;      // nullable means ignore
     private final LocalDate endDate;        // nullable means ignore
     private final RoomType roomType;        // nullable means any
+    private final List<String> requiredAmenities; // room must offer all of these
+    private final List<String> optionalAmenities; // room must offer at least one of these (empty means ignore)
+    private final String keywords;          // nullable/blank means ignore; matched against property address/description
 
     public SearchCriteria(String city, Double minPrice, Double maxPrice,
                           LocalDate startDate, LocalDate endDate,
                           RoomType roomType) {
+        this(city, minPrice, maxPrice, startDate, endDate, roomType, List.of(), List.of());
+    }
+
+    public SearchCriteria(String city, Double minPrice, Double maxPrice,
+                          LocalDate startDate, LocalDate endDate,
+                          RoomType roomType, List<String> requiredAmenities, List<String> optionalAmenities) {
+        this(city, minPrice, maxPrice, startDate, endDate, roomType, requiredAmenities, optionalAmenities, null);
+    }
+
+    public SearchCriteria(String city, Double minPrice, Double maxPrice,
+                          LocalDate startDate, LocalDate endDate,
+                          RoomType roomType, List<String> requiredAmenities, List<String> optionalAmenities,
+                          String keywords) {
         this.city = city;
         this.minPrice = minPrice;
         this.maxPrice = maxPrice;
         this.startDate = startDate;
         this.endDate = endDate;
         this.roomType = roomType;
+        this.requiredAmenities = requiredAmenities == null ? List.of() : List.copyOf(requiredAmenities);
+        this.optionalAmenities = optionalAmenities == null ? List.of() : List.copyOf(optionalAmenities);
+        this.keywords = keywords == null || keywords.isBlank() ? null : keywords.trim();
     }
 
     public String getCity() { return city; }
@@ -29,4 +49,7 @@ public class SearchCriteria {
     public LocalDate getStartDate() { return startDate; }
     public LocalDate getEndDate() { return endDate; }
     public RoomType getRoomType() { return roomType; }
+    public List<String> getRequiredAmenities() { return requiredAmenities; }
+    public List<String> getOptionalAmenities() { return optionalAmenities; }
+    public String getKeywords() { return keywords; }
 }
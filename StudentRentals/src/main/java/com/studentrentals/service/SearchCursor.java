@@ -0,0 +1,26 @@
+package com.studentrentals.service;
+
+// Position in a sorted result list: the sort key and room id of the last room on a page.
+// Pass it back to SearchService.searchPage to continue after that room.
+public class SearchCursor {
+    private final SearchSort sort;
+    private final double key;
+    private final String roomId;
+
+    SearchCursor(SearchSort sort, double key, String roomId) {
+        this.sort = sort;
+        this.key = key;
+        this.roomId = roomId;
+    }
+
+    public SearchSort getSort() { return sort; }
+    public String getRoomId() { return roomId; }
+
+    double getKey() { return key; }
+
+    // true if a room with this key and id sorts after the cursor (ties broken by room id)
+    boolean precedes(double otherKey, String otherRoomId) {
+        int c = Double.compare(key, otherKey);
+        return c < 0 || (c == 0 && roomId.compareTo(otherRoomId) < 0);
+    }
+}
@@ -0,0 +1,58 @@
+package com.studentrentals.service;
+
+import com.studentrentals.model.property.Room;
+import com.studentrentals.model.property.RoomType;
+
+import java.util.*;
+
+// Counts of the rooms in a search result per room type, price bucket, city and amenity, for showing
+// beside each filter. Counted while the result is collected (RoomColumns.match), so it costs no extra pass.
+// Cities are keyed by their normalised (lower-case) name and amenities by AmenityIndex term.
+public class SearchFacets {
+
+    public static final int PRICE_BUCKET_WIDTH = 100;
+
+    private final EnumMap<RoomType, Integer> byType = new EnumMap<>(RoomType.class);
+    private final TreeMap<Integer, Integer> byPriceBucket = new TreeMap<>();
+    private final TreeMap<String, Integer> byCity = new TreeMap<>();
+    private final TreeMap<String, Integer> byAmenity = new TreeMap<>();
+    private int total;
+
+    SearchFacets() {
+    }
+
+    static int priceBucket(double rent) {
+        return (int) Math.floor(rent / PRICE_BUCKET_WIDTH) * PRICE_BUCKET_WIDTH;
+    }
+
+    void addTotal(int n) { total += n; }
+    void addType(RoomType type, int n) { merge(byType, type, n); }
+    void addPriceBucket(int lowerBound, int n) { merge(byPriceBucket, lowerBound, n); }
+    void addCity(String city, int n) { merge(byCity, city.toLowerCase().trim(), n); }
+    void addAmenity(String term, int n) { merge(byAmenity, term, n); }
+
+    // Takes back a counted room that a later stage (the occupancy join) dropped from the result
+    void remove(Room room) {
+        addTotal(-1);
+        addType(room.getType(), -1);
+        addPriceBucket(priceBucket(room.getMonthlyRent()), -1);
+        addCity(room.getCity(), -1);
+        for (String term : AmenityIndex.terms(room.getAmenities())) addAmenity(term, -1);
+    }
+
+    public int getTotal() { return total; }
+
+    public Map<RoomType, Integer> getByType() { return Collections.unmodifiableMap(byType); }
+
+    // Bucket lower bound -> rooms with rent in [bound, bound + PRICE_BUCKET_WIDTH)
+    public SortedMap<Integer, Integer> getByPriceBucket() { return Collections.unmodifiableSortedMap(byPriceBucket); }
+
+    public SortedMap<String, Integer> getByCity() { return Collections.unmodifiableSortedMap(byCity); }
+
+    public SortedMap<String, Integer> getByAmenity() { return Collections.unmodifiableSortedMap(byAmenity); }
+
+    // Drops keys whose count falls to zero, so a removed room leaves no empty facet values behind
+    private static <K> void merge(Map<K, Integer> counts, K key, int delta) {
+        counts.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+}
@@ -0,0 +1,25 @@
+package com.studentrentals.service;
+
+// A listing that was added or changed and now matches one of a student's saved searches
+public class SearchMatch {
+    private final String subscriptionId;
+    private final String roomId;
+
+    SearchMatch(String subscriptionId, String roomId) {
+        this.subscriptionId = subscriptionId;
+        this.roomId = roomId;
+    }
+
+    public String getSubscriptionId() { return subscriptionId; }
+    public String getRoomId() { return roomId; }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SearchMatch m && subscriptionId.equals(m.subscriptionId) && roomId.equals(m.roomId);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * subscriptionId.hashCode() + roomId.hashCode();
+    }
+}
@@ -0,0 +1,21 @@
+package com.studentrentals.service;
+
+import com.studentrentals.model.property.Room;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One page of SearchService.searchPage; next is null on the last page
+public class SearchPage {
+    private final List<Room> rooms;
+    private final SearchCursor next;
+
+    SearchPage(List<Room> rooms, SearchCursor next) {
+        this.rooms = rooms;
+        this.next = next;
+    }
+
+    public List<Room> getRooms() { return new ArrayList<>(rooms); }
+    public SearchCursor getNext() { return next; }
+    public boolean hasMore() { return next != null; }
+}
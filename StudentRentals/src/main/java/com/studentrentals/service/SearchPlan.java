@@ -0,0 +1,56 @@
+package com.studentrentals.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// How a search's listing predicates are evaluated (SearchService.explain): the access path that produces
+// the first candidates, then the remaining predicates in the order they are applied. Row counts come from
+// the index statistics: exact for city, type and amenities, bucket sums (upper bounds) for rent and dates,
+// combined as if the predicates were independent. Occupancy is checked afterwards and is not part of it.
+public class SearchPlan {
+
+    public static final class Step {
+        private final String operation;
+        private final String predicate;
+        private final int matching;   // rooms this predicate alone matches; -1 = not estimated
+        private final int rowsAfter;  // estimated candidates left after this step; -1 = not estimated
+
+        Step(String operation, String predicate, int matching, int rowsAfter) {
+            this.operation = operation;
+            this.predicate = predicate;
+            this.matching = matching;
+            this.rowsAfter = rowsAfter;
+        }
+
+        public String getOperation() { return operation; }
+        public String getPredicate() { return predicate; }
+        public int getMatching() { return matching; }
+        public int getRowsAfter() { return rowsAfter; }
+    }
+
+    private final int rooms;
+    private final List<Step> steps;
+
+    SearchPlan(int rooms, List<Step> steps) {
+        this.rooms = rooms;
+        this.steps = steps;
+    }
+
+    public int getRooms() { return rooms; }
+    public List<Step> getSteps() { return new ArrayList<>(steps); }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Plan over " + rooms + " listed rooms:");
+        for (int i = 0; i < steps.size(); i++) {
+            Step s = steps.get(i);
+            sb.append(String.format("%n %d) %-13s %-40s matches %8s  rows left %8s", i + 1, s.operation, s.predicate,
+                    estimate(s.matching), estimate(s.rowsAfter)));
+        }
+        return sb.toString();
+    }
+
+    private static String estimate(int n) {
+        return n < 0 ? "?" : "~" + n;
+    }
+}
@@ -0,0 +1,20 @@
+package com.studentrentals.service;
+
+import com.studentrentals.model.property.Room;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Result of SearchService.searchWithFacets: the matching rooms and facet counts over exactly those rooms
+public class SearchResults {
+    private final List<Room> rooms;
+    private final SearchFacets facets;
+
+    SearchResults(List<Room> rooms, SearchFacets facets) {
+        this.rooms = rooms;
+        this.facets = facets;
+    }
+
+    public List<Room> getRooms() { return new ArrayList<>(rooms); }
+    public SearchFacets getFacets() { return facets; }
+}
@@ -1,58 +1,171 @@
 package com.studentrentals.service;
 
 import com.studentrentals.model.property.Room;
-import com.studentrentals.model.property.RoomType;
+import com.studentrentals.repository.PropertyRepository;
 import com.studentrentals.repository.RoomRepository;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
 public class SearchService {
 
+    private static final int DEFAULT_CACHE_ENTRIES = 256;
+
     private final RoomRepository roomRepository;
+    private final RoomColumns columns;
+    private final PropertyTextIndex textIndex; // null: keyword search not available
+    private final SearchCache cache;
 
     public SearchService(RoomRepository roomRepository) {
+        this(roomRepository, null, DEFAULT_CACHE_ENTRIES);
+    }
+
+    public SearchService(RoomRepository roomRepository, int cacheEntries) {
+        this(roomRepository, null, cacheEntries);
+    }
+
+    // propertyRepository enables keyword search over property text (null = off); cacheEntries = 0 disables the result cache
+    public SearchService(RoomRepository roomRepository, PropertyRepository propertyRepository, int cacheEntries) {
+        if (cacheEntries < 0) throw new IllegalArgumentException("Cache size must be >= 0");
         this.roomRepository = roomRepository;
+        this.columns = RoomColumns.attach(roomRepository);
+        this.textIndex = propertyRepository == null ? null : PropertyTextIndex.attach(propertyRepository);
+        this.cache = new SearchCache(cacheEntries);
     }
 
     public List<Room> search(SearchCriteria criteria) {
-        // 1) Candidate set by city (uses repository index)
-        List<Room> candidates;
-        if (criteria.getCity() != null && !criteria.getCity().isBlank()) {
-            candidates = roomRepository.findByCity(criteria.getCity());
-        } else {
-            candidates = roomRepository.findAll();
+        return search(criteria, false).getRooms();
+    }
+
+    // Same rooms as search(), plus counts per room type, price bucket, city and amenity over exactly those
+    // rooms. The counts are taken in the pass that collects the matches, not by one search per facet.
+    public SearchResults searchWithFacets(SearchCriteria criteria) {
+        return search(criteria, true);
+    }
+
+    private SearchResults search(SearchCriteria criteria, boolean withFacets) {
+        String key = SearchCache.key(criteria, null, null, withFacets ? -1 : 0);
+        long generation = generation(criteria);
+        SearchCache.Entry cached = cache.get(key, generation);
+        if (cached != null) return new SearchResults(roomRepository.findAllById(cached.roomIds), cached.facets);
+
+        // 1) Bitmap indexes for city/type/amenities, then column scan for price and date window,
+        //    restricted to keyword-matching properties if there are keywords; facets counted on the way
+        Map<String, Double> scores = keywordScores(criteria);
+        SearchFacets facets = withFacets ? new SearchFacets() : null;
+        List<String> candidates = columns.match(criteria, scores, facets);
+
+        // 2) Occupancy join; Room objects are only materialised for matches (and for booked rooms that
+        //    have to come back out of the facet counts)
+        List<String> matches = new ArrayList<>();
+        List<String> booked = new ArrayList<>();
+        for (String roomId : candidates) {
+            if (isBooked(roomId, criteria.getStartDate(), criteria.getEndDate())) booked.add(roomId);
+            else matches.add(roomId);
+        }
+        List<Room> rooms = roomRepository.findAllById(matches);
+        if (facets != null && !booked.isEmpty()) {
+            for (Room r : roomRepository.findAllById(booked)) facets.remove(r);
         }
 
-        // 2) Apply filters
-        List<Room> results = new ArrayList<>();
-        for (Room room : candidates) {
-            if (!matchesPrice(room, criteria.getMinPrice(), criteria.getMaxPrice())) continue;
-            if (!matchesType(room, criteria.getRoomType())) continue;
-            if (!matchesDate(room, criteria.getStartDate(), criteria.getEndDate())) continue;
-            results.add(room);
+        // 3) Keyword searches come back best match first
+        if (scores != null) {
+            rooms.sort(Comparator.comparingDouble((Room r) -> -scores.getOrDefault(r.getPropertyId(), 0.0))
+                    .thenComparing(Room::getRoomId));
+            matches.clear();
+            for (Room r : rooms) matches.add(r.getRoomId());
         }
-        return results;
+        cache.put(key, generation, matches, null, facets);
+        return new SearchResults(rooms, facets);
     }
 
-    private boolean matchesPrice(Room room, Double min, Double max) {
-        double rent = room.getMonthlyRent();
-        if (min != null && rent < min) return false;
-        if (max != null && rent > max) return false;
-        return true;
+    // One page of up to limit free rooms in the given order, continuing after the cursor (null = first page).
+    // Candidates come from RoomColumns.top in bounded batches; the occupancy check runs outside the
+    // columns' lock and, if it drops rooms, the next (doubled) batch resumes after the last candidate seen.
+    public SearchPage searchPage(SearchCriteria criteria, SearchSort sort, SearchCursor after, int limit) {
+        if (limit <= 0) throw new IllegalArgumentException("Page size must be > 0");
+        if (sort == null) throw new IllegalArgumentException("Sort order is required");
+        if (after != null && after.getSort() != sort) throw new IllegalArgumentException("Cursor belongs to a different sort order");
+
+        String key = SearchCache.key(criteria, sort, after, limit);
+        long generation = generation(criteria);
+        SearchCache.Entry cached = cache.get(key, generation);
+        if (cached != null) return new SearchPage(roomRepository.findAllById(cached.roomIds), cached.next);
+        Map<String, Double> scores = keywordScores(criteria);
+
+        List<SearchCursor> page = new ArrayList<>();
+        SearchCursor position = after;
+        boolean more = false;
+        int batchSize = limit + 1; // one extra tells us whether another page exists
+        while (!more) {
+            List<SearchCursor> batch = columns.top(criteria, scores, sort, position, batchSize);
+            for (SearchCursor hit : batch) {
+                if (isBooked(hit.getRoomId(), criteria.getStartDate(), criteria.getEndDate())) continue;
+                if (page.size() == limit) {
+                    more = true;
+                    break;
+                }
+                page.add(hit);
+            }
+            if (batch.size() < batchSize) break;
+            position = batch.get(batch.size() - 1);
+            batchSize = Math.min(batchSize * 2, 1 << 16);
+        }
+
+        List<String> ids = new ArrayList<>(page.size());
+        for (SearchCursor hit : page) ids.add(hit.getRoomId());
+        SearchCursor next = more ? page.get(page.size() - 1) : null;
+        cache.put(key, generation, ids, next);
+        return new SearchPage(roomRepository.findAllById(ids), next);
+    }
+
+    public long cacheHits() {
+        return cache.hits();
     }
 
-    private boolean matchesType(Room room, RoomType type) {
-        if (type == null) return true;
-        return room.getType() == type;
+    public long cacheMisses() {
+        return cache.misses();
     }
 
-    // Date filter: student needs [start,end] within room's [availableFrom, availableTo]
-    private boolean matchesDate(Room room, LocalDate start, LocalDate end) {
-        if (start == null || end == null) return true;
-        if (end.isBefore(start)) return false;
+    // Misses caused by an entry whose city (or, for city-less queries, any room) changed since it was cached
+    public long cacheStaleMisses() {
+        return cache.staleEvictions();
+    }
+
+    // Number of rooms matching the listing predicates (occupancy not applied); bitmap popcounts, no Room access
+    public int count(SearchCriteria criteria) {
+        return columns.count(criteria, keywordScores(criteria));
+    }
+
+    // The evaluation plan for the criteria's listing predicates: access path, predicate order and the
+    // row estimates behind them. Nothing is cached or fetched.
+    public SearchPlan explain(SearchCriteria criteria) {
+        return columns.explain(criteria, keywordScores(criteria));
+    }
+
+    // BM25 score per matching property, or null (no keyword filter) when the criteria have no keywords
+    // or only stop words
+    private Map<String, Double> keywordScores(SearchCriteria criteria) {
+        if (criteria.getKeywords() == null) return null;
+        if (textIndex == null) throw new IllegalArgumentException("Keyword search is not available");
+        return textIndex.search(criteria.getKeywords());
+    }
+
+    // Cache generation: room changes in the city, plus any property text change for keyword searches.
+    // Both counters only grow, so their sum changes whenever either does.
+    private long generation(SearchCriteria criteria) {
+        long generation = columns.generation(criteria.getCity());
+        if (criteria.getKeywords() != null && textIndex != null) generation += textIndex.generation();
+        return generation;
+    }
 
-        return !start.isBefore(room.getAvailableFrom()) && !end.isAfter(room.getAvailableTo());
+    // Occupancy join: drop rooms already ACCEPTED for an overlapping period (only runs on date matches).
+    // Reads the room's occupancy calendar bitmap, so no booking objects are touched.
+    private boolean isBooked(String roomId, LocalDate start, LocalDate end) {
+        if (start == null || end == null) return false;
+        return !roomRepository.isRoomFree(roomId, start, end);
     }
 }
@@ -0,0 +1,8 @@
+package com.studentrentals.service;
+
+public enum SearchSort {
+    RENT_ASCENDING,
+    RENT_DESCENDING,
+    SOONEST_AVAILABLE,
+    RELEVANCE // keyword score of the room's property; needs keywords in the criteria
+}
@@ -0,0 +1,266 @@
+package com.studentrentals.service;
+
+import com.studentrentals.model.property.Room;
+import com.studentrentals.model.property.RoomType;
+import com.studentrentals.util.StringDictionary;
+
+import java.util.*;
+
+// Reverse index of saved searches, for matching one room against all of them without looping over
+// every query. Searches are bucketed by city (or any) and room type (or any), so a room only visits
+// four buckets. Within a bucket the rent range picks the structure: bounded ranges are filed under each
+// 50-wide price band they cover, min-only and max-only ranges sit in maps sorted by that bound (so the
+// room's rent selects exactly the ones it satisfies), and searches with no rent bound sit in one list.
+// Each list keeps its searches' CompiledCriteria bounds in parallel primitive arrays, so checking the
+// candidates is one branch-free pass over those arrays rather than a walk over scattered objects.
+// Amenity terms get small ids here; a search whose terms all have ids below 64 tests them as 64-bit
+// masks against the room's mask, and only the rest fall back to comparing strings.
+// Not thread-safe (SubscriptionService locks around it).
+class SubscriptionIndex {
+
+    private static final double BAND_WIDTH = 50;
+    private static final int TOP_BAND = 200; // rents from 10,000 up share the last band
+    private static final int ANY_TYPE_BUCKET = RoomType.values().length; // index of the "any type" bucket, not a type value
+
+    private static final class Entry {
+        final SavedSearch search;
+        final CompiledCriteria criteria;
+        final Double min;
+        final Double max;
+        long requiredMask;
+        long optionalMask;
+        boolean amenityStrings; // some term has no mask bit; compare strings instead
+
+        Entry(SavedSearch search) {
+            this.search = search;
+            this.criteria = CompiledCriteria.of(search.getCriteria());
+            this.min = search.getCriteria().getMinPrice();
+            this.max = search.getCriteria().getMaxPrice();
+        }
+    }
+
+    // Entries in insertion order plus their compiled bounds, column by column
+    private static final class EntryList {
+        Entry[] entries = new Entry[4];
+        double[] minRent = new double[4];
+        double[] maxRent = new double[4];
+        int[] type = new int[4];
+        int[] startDay = new int[4];
+        int[] endDay = new int[4];
+        long[] requiredMask = new long[4];
+        long[] optionalMask = new long[4];
+        boolean[] amenityStrings = new boolean[4];
+        int size;
+
+        void add(Entry e) {
+            if (size == entries.length) grow();
+            CompiledCriteria c = e.criteria;
+            entries[size] = e;
+            minRent[size] = c.minRent;
+            maxRent[size] = c.maxRent;
+            type[size] = c.type;
+            startDay[size] = c.startDay;
+            endDay[size] = c.endDay;
+            requiredMask[size] = e.requiredMask;
+            optionalMask[size] = e.optionalMask;
+            amenityStrings[size] = e.amenityStrings;
+            size++;
+        }
+
+        void remove(Entry e) {
+            for (int i = 0; i < size; i++) {
+                if (entries[i] != e) continue;
+                int tail = size - i - 1;
+                System.arraycopy(entries, i + 1, entries, i, tail);
+                System.arraycopy(minRent, i + 1, minRent, i, tail);
+                System.arraycopy(maxRent, i + 1, maxRent, i, tail);
+                System.arraycopy(type, i + 1, type, i, tail);
+                System.arraycopy(startDay, i + 1, startDay, i, tail);
+                System.arraycopy(endDay, i + 1, endDay, i, tail);
+                System.arraycopy(requiredMask, i + 1, requiredMask, i, tail);
+                System.arraycopy(optionalMask, i + 1, optionalMask, i, tail);
+                System.arraycopy(amenityStrings, i + 1, amenityStrings, i, tail);
+                entries[--size] = null;
+                return;
+            }
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        // The CompiledCriteria test plus the amenity masks, run down the columns
+        void match(double rent, int roomType, int from, int to, long offeredMask, Set<String> offered,
+                   List<SavedSearch> matches) {
+            for (int i = 0; i < size; i++) {
+                boolean hit = rent >= minRent[i] & rent <= maxRent[i]
+                        & (type[i] == CompiledCriteria.ANY_TYPE | type[i] == roomType)
+                        & from <= startDay[i] & to >= endDay[i]
+                        & (offeredMask & requiredMask[i]) == requiredMask[i]
+                        & (optionalMask[i] == 0 | (offeredMask & optionalMask[i]) != 0);
+                if (hit && (!amenityStrings[i] || entries[i].criteria.matchesAmenities(offered))) {
+                    matches.add(entries[i].search);
+                }
+            }
+        }
+
+        private void grow() {
+            int capacity = size * 2;
+            entries = Arrays.copyOf(entries, capacity);
+            minRent = Arrays.copyOf(minRent, capacity);
+            maxRent = Arrays.copyOf(maxRent, capacity);
+            type = Arrays.copyOf(type, capacity);
+            startDay = Arrays.copyOf(startDay, capacity);
+            endDay = Arrays.copyOf(endDay, capacity);
+            requiredMask = Arrays.copyOf(requiredMask, capacity);
+            optionalMask = Arrays.copyOf(optionalMask, capacity);
+            amenityStrings = Arrays.copyOf(amenityStrings, capacity);
+        }
+    }
+
+    private static final class Bucket {
+        final EntryList anyRent = new EntryList();
+        final Map<Integer, EntryList> byBand = new HashMap<>();
+        final TreeMap<Double, EntryList> byMinOnly = new TreeMap<>();
+        final TreeMap<Double, EntryList> byMaxOnly = new TreeMap<>();
+
+        boolean isEmpty() {
+            return anyRent.isEmpty() && byBand.isEmpty() && byMinOnly.isEmpty() && byMaxOnly.isEmpty();
+        }
+    }
+
+    // normalised city ("" = any city) -> buckets by room type ordinal, ANY_TYPE_BUCKET last
+    private final Map<String, Bucket[]> bucketsByCity = new HashMap<>();
+    private final Map<String, Entry> entriesById = new HashMap<>();
+    private int amenitySearches; // rooms' amenity terms are only extracted while some search needs them
+    private final StringDictionary termIds = new StringDictionary();
+
+    void add(SavedSearch search) {
+        Entry entry = new Entry(search);
+        compileAmenities(entry);
+        entriesById.put(search.getSubscriptionId(), entry);
+        if (entry.criteria.hasAmenities()) amenitySearches++;
+        Bucket bucket = bucketFor(search.getCriteria(), true);
+        if (entry.min != null && entry.max != null) {
+            for (int band = band(entry.min); band <= band(entry.max); band++) {
+                bucket.byBand.computeIfAbsent(band, k -> new EntryList()).add(entry);
+            }
+        } else if (entry.min != null) {
+            bucket.byMinOnly.computeIfAbsent(entry.min, k -> new EntryList()).add(entry);
+        } else if (entry.max != null) {
+            bucket.byMaxOnly.computeIfAbsent(entry.max, k -> new EntryList()).add(entry);
+        } else {
+            bucket.anyRent.add(entry);
+        }
+    }
+
+    void remove(String subscriptionId) {
+        Entry entry = entriesById.remove(subscriptionId);
+        if (entry == null) return;
+        if (entry.criteria.hasAmenities()) amenitySearches--;
+        Bucket bucket = bucketFor(entry.search.getCriteria(), false);
+        if (bucket == null) return;
+        if (entry.min != null && entry.max != null) {
+            for (int band = band(entry.min); band <= band(entry.max); band++) removeFrom(bucket.byBand, band, entry);
+        } else if (entry.min != null) {
+            removeFrom(bucket.byMinOnly, entry.min, entry);
+        } else if (entry.max != null) {
+            removeFrom(bucket.byMaxOnly, entry.max, entry);
+        } else {
+            bucket.anyRent.remove(entry);
+        }
+        if (bucket.isEmpty()) dropIfEmpty(entry.search.getCriteria().getCity());
+    }
+
+    // Saved searches whose listing predicates the room (in the given city) satisfies
+    List<SavedSearch> match(String city, Room room) {
+        List<SavedSearch> matches = new ArrayList<>();
+        double rent = room.getMonthlyRent();
+        int type = room.getType().ordinal();
+        int from = (int) room.getAvailableFrom().toEpochDay();
+        int to = (int) room.getAvailableTo().toEpochDay();
+        String[] terms = amenitySearches > 0 ? AmenityIndex.terms(room.getAmenities()) : new String[0];
+        Set<String> offered = Set.of(terms);
+        long offeredMask = 0;
+        for (String t : terms) {
+            int id = termIds.find(t);
+            if (id >= 0 && id < 64) offeredMask |= 1L << id;
+        }
+        String roomCity = norm(city);
+        for (String key : roomCity.isEmpty() ? new String[]{""} : new String[]{roomCity, ""}) {
+            Bucket[] byType = bucketsByCity.get(key);
+            if (byType == null) continue;
+            for (Bucket bucket : new Bucket[]{byType[type], byType[ANY_TYPE_BUCKET]}) {
+                if (bucket == null) continue;
+                bucket.anyRent.match(rent, type, from, to, offeredMask, offered, matches);
+                EntryList band = bucket.byBand.get(band(rent));
+                if (band != null) band.match(rent, type, from, to, offeredMask, offered, matches);
+                for (EntryList entries : bucket.byMinOnly.headMap(rent, true).values()) {
+                    entries.match(rent, type, from, to, offeredMask, offered, matches);
+                }
+                for (EntryList entries : bucket.byMaxOnly.tailMap(rent, true).values()) {
+                    entries.match(rent, type, from, to, offeredMask, offered, matches);
+                }
+            }
+        }
+        return matches;
+    }
+
+    int size() {
+        return entriesById.size();
+    }
+
+    private void compileAmenities(Entry entry) {
+        CompiledCriteria c = entry.criteria;
+        if (!c.hasAmenities()) return;
+        long required = 0;
+        long optional = 0;
+        for (String t : c.required) {
+            int id = termIds.intern(t);
+            if (id >= 64) entry.amenityStrings = true;
+            else required |= 1L << id;
+        }
+        for (String t : c.optional) {
+            int id = termIds.intern(t);
+            if (id >= 64) entry.amenityStrings = true;
+            else optional |= 1L << id;
+        }
+        if (!entry.amenityStrings) {
+            entry.requiredMask = required;
+            entry.optionalMask = optional;
+        }
+    }
+
+    private Bucket bucketFor(SearchCriteria c, boolean create) {
+        String key = norm(c.getCity());
+        Bucket[] byType = create ? bucketsByCity.computeIfAbsent(key, k -> new Bucket[ANY_TYPE_BUCKET + 1]) : bucketsByCity.get(key);
+        if (byType == null) return null;
+        int t = c.getRoomType() == null ? ANY_TYPE_BUCKET : c.getRoomType().ordinal();
+        if (byType[t] == null && create) byType[t] = new Bucket();
+        return byType[t];
+    }
+
+    private void dropIfEmpty(String city) {
+        String key = norm(city);
+        Bucket[] byType = bucketsByCity.get(key);
+        for (int t = 0; t < byType.length; t++) {
+            if (byType[t] != null && byType[t].isEmpty()) byType[t] = null;
+        }
+        if (Arrays.stream(byType).allMatch(Objects::isNull)) bucketsByCity.remove(key);
+    }
+
+    private static <K> void removeFrom(Map<K, EntryList> map, K key, Entry entry) {
+        EntryList entries = map.get(key);
+        if (entries == null) return;
+        entries.remove(entry);
+        if (entries.isEmpty()) map.remove(key);
+    }
+
+    private static int band(double rent) {
+        return (int) Math.max(0, Math.min(TOP_BAND, rent / BAND_WIDTH));
+    }
+
+    private static String norm(String city) {
+        return city == null ? "" : city.toLowerCase().trim();
+    }
+}
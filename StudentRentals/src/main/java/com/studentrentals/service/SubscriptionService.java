@@ -0,0 +1,92 @@
+package com.studentrentals.service;
+
+import com.studentrentals.model.property.Room;
+import com.studentrentals.repository.RoomListener;
+import com.studentrentals.repository.RoomRepository;
+import com.studentrentals.util.IdGenerator;
+
+import java.util.*;
+
+// Standing searches. Every room PropertyService adds or changes reaches roomSaved (as a RoomListener),
+// is matched against all saved searches through SubscriptionIndex, and each match is queued for the
+// search's owner until they read it. Saved searches live in memory only.
+public class SubscriptionService implements RoomListener {
+
+    private static final int MAX_SEARCHES_PER_STUDENT = 20;
+    private static final int MAX_PENDING_PER_STUDENT = 100; // oldest unread matches are dropped beyond this
+
+    private final RoomRepository roomRepository;
+    private final SubscriptionIndex index = new SubscriptionIndex();
+    private final Map<String, SavedSearch> searchesById = new HashMap<>();
+    private final Map<String, List<SavedSearch>> searchesByStudent = new HashMap<>();
+    // studentId -> pending matches in arrival order; a set, so a room that keeps changing is queued once per search
+    private final Map<String, LinkedHashSet<SearchMatch>> pendingByStudent = new HashMap<>();
+
+    public SubscriptionService(RoomRepository roomRepository) {
+        this.roomRepository = roomRepository;
+        roomRepository.addListener(this);
+    }
+
+    public synchronized SavedSearch subscribe(String studentId, SearchCriteria criteria) {
+        if (studentId == null || studentId.isBlank()) throw new IllegalArgumentException("Student is required");
+        if (criteria == null) throw new IllegalArgumentException("Search criteria are required");
+        if (criteria.getKeywords() != null) throw new IllegalArgumentException("Searches with keywords cannot be saved");
+        List<SavedSearch> mine = searchesByStudent.computeIfAbsent(studentId, k -> new ArrayList<>());
+        if (mine.size() >= MAX_SEARCHES_PER_STUDENT) {
+            throw new IllegalArgumentException("You can save at most " + MAX_SEARCHES_PER_STUDENT + " searches");
+        }
+
+        SavedSearch search = new SavedSearch(IdGenerator.newId("sub"), studentId, criteria);
+        searchesById.put(search.getSubscriptionId(), search);
+        mine.add(search);
+        index.add(search);
+        return search;
+    }
+
+    public synchronized void unsubscribe(String studentId, String subscriptionId) {
+        SavedSearch search = searchesById.get(subscriptionId);
+        if (search == null || !search.getStudentId().equals(studentId)) {
+            throw new IllegalArgumentException("Saved search not found: " + subscriptionId);
+        }
+        searchesById.remove(subscriptionId);
+        searchesByStudent.get(studentId).remove(search);
+        index.remove(subscriptionId);
+        LinkedHashSet<SearchMatch> pending = pendingByStudent.get(studentId);
+        if (pending != null) pending.removeIf(m -> m.getSubscriptionId().equals(subscriptionId));
+    }
+
+    public synchronized List<SavedSearch> getSubscriptions(String studentId) {
+        return new ArrayList<>(searchesByStudent.getOrDefault(studentId, List.of()));
+    }
+
+    public synchronized int pendingMatchCount(String studentId) {
+        LinkedHashSet<SearchMatch> pending = pendingByStudent.get(studentId);
+        return pending == null ? 0 : pending.size();
+    }
+
+    // Returns and clears the student's queued matches, skipping rooms deleted since they were queued
+    public synchronized List<SearchMatch> takeMatches(String studentId) {
+        LinkedHashSet<SearchMatch> pending = pendingByStudent.remove(studentId);
+        if (pending == null) return List.of();
+        List<SearchMatch> matches = new ArrayList<>(pending.size());
+        for (SearchMatch m : pending) {
+            if (roomRepository.findById(m.getRoomId()).isPresent()) matches.add(m);
+        }
+        return matches;
+    }
+
+    @Override
+    public synchronized void roomSaved(String city, Room room) {
+        for (SavedSearch search : index.match(city, room)) {
+            LinkedHashSet<SearchMatch> pending =
+                    pendingByStudent.computeIfAbsent(search.getStudentId(), k -> new LinkedHashSet<>());
+            pending.add(new SearchMatch(search.getSubscriptionId(), room.getRoomId()));
+            if (pending.size() > MAX_PENDING_PER_STUDENT) pending.remove(pending.iterator().next());
+        }
+    }
+
+    @Override
+    public synchronized void roomMoved(String roomId, String newCity) {
+        roomRepository.findById(roomId).ifPresent(room -> roomSaved(newCity, room));
+    }
+}
@@ -0,0 +1,316 @@
+package com.studentrentals.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+// Disk-resident B+tree from String keys to byte[] values, stored in fixed-size pages behind a BufferPool,
+// so only the cached pages occupy heap. Leaves are chained left to right for ordered scans.
+// Keys compare by their UTF-8 bytes (unsigned), which matches code point order.
+//
+// Page 0 is the header: magic, version, page size, root page, entry count.
+// Leaf:     [byte LEAF][short n][int nextLeaf] then n x ([short keyLen][key][short valueLen][value])
+// Internal: [byte INTERNAL][short n][int child0] then n x ([short keyLen][key][int child])
+// where child i holds keys below key i and child i+1 holds keys from key i up.
+//
+// Deletes remove entries in place without merging pages; space is reused by later inserts into the
+// same leaf. All methods are synchronized.
+public class BPlusTree implements AutoCloseable {
+
+    private static final int MAGIC = 0x53524254; // "SRBT"
+    private static final int VERSION = 1;
+    private static final byte LEAF = 1;
+    private static final byte INTERNAL = 2;
+    private static final int NODE_HEADER = 7;
+    private static final int NO_PAGE = -1;
+
+    private static final class Node {
+        final int pageId;
+        final boolean leaf;
+        final List<byte[]> keys = new ArrayList<>();
+        final List<byte[]> values = new ArrayList<>();   // leaf only
+        final List<Integer> children = new ArrayList<>(); // internal only
+        int next = NO_PAGE;                                // leaf only
+
+        Node(int pageId, boolean leaf) {
+            this.pageId = pageId;
+            this.leaf = leaf;
+        }
+    }
+
+    // Separator pushed up to the parent after a split
+    private record Split(byte[] key, int rightPageId) {}
+
+    private final BufferPool pool;
+    private final int maxEntryBytes;
+    private int rootPageId;
+    private long size;
+
+    private BPlusTree(BufferPool pool) {
+        this.pool = pool;
+        this.maxEntryBytes = pool.pageSize() / 4; // guarantees both halves of a split fit in a page
+    }
+
+    // Opens (or creates) a tree file; cachePages bounds the heap used for pages
+    public static BPlusTree open(Path path, int pageSize, int cachePages) throws IOException {
+        BufferPool pool = new BufferPool(new Pager(path, pageSize), cachePages);
+        BPlusTree tree = new BPlusTree(pool);
+        if (pool.pageCount() == 0) {
+            pool.allocate(); // header
+            Node root = new Node(pool.allocate(), true);
+            tree.rootPageId = root.pageId;
+            tree.store(root);
+            tree.writeHeader();
+        } else {
+            ByteBuffer header = pool.read(0);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION || header.getInt() != pageSize) {
+                pool.close();
+                throw new IOException("Not a B+tree file with page size " + pageSize + ": " + path);
+            }
+            tree.rootPageId = header.getInt();
+            tree.size = header.getLong();
+        }
+        return tree;
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    public synchronized long cacheHits() {
+        return pool.hits();
+    }
+
+    public synchronized long cacheMisses() {
+        return pool.misses();
+    }
+
+    public synchronized byte[] get(String key) {
+        byte[] k = encodeKey(key);
+        Node node = load(rootPageId);
+        while (!node.leaf) node = load(node.children.get(childIndex(node, k)));
+        int i = search(node.keys, k);
+        return i >= 0 ? node.values.get(i) : null;
+    }
+
+    // Inserts or replaces
+    public synchronized void put(String key, byte[] value) {
+        byte[] k = encodeKey(key);
+        if (4 + k.length + value.length > maxEntryBytes) {
+            throw new IllegalArgumentException("Entry too large for a " + pool.pageSize() + "-byte page: " + key);
+        }
+        Split split = insert(load(rootPageId), k, value);
+        if (split != null) {
+            Node root = new Node(pool.allocate(), false);
+            root.children.add(rootPageId);
+            root.keys.add(split.key());
+            root.children.add(split.rightPageId());
+            store(root);
+            rootPageId = root.pageId;
+        }
+        writeHeader();
+    }
+
+    public synchronized boolean remove(String key) {
+        byte[] k = encodeKey(key);
+        Node node = load(rootPageId);
+        while (!node.leaf) node = load(node.children.get(childIndex(node, k)));
+        int i = search(node.keys, k);
+        if (i < 0) return false;
+        node.keys.remove(i);
+        node.values.remove(i);
+        store(node);
+        size--;
+        writeHeader();
+        return true;
+    }
+
+    // Visits every entry in key order by walking the leaf chain
+    public synchronized void forEach(BiConsumer<String, byte[]> action) {
+        Node node = load(rootPageId);
+        while (!node.leaf) node = load(node.children.get(0));
+        while (true) {
+            for (int i = 0; i < node.keys.size(); i++) {
+                action.accept(new String(node.keys.get(i), StandardCharsets.UTF_8), node.values.get(i));
+            }
+            if (node.next == NO_PAGE) return;
+            node = load(node.next);
+        }
+    }
+
+    public synchronized void flush() throws IOException {
+        pool.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        pool.close();
+    }
+
+    private Split insert(Node node, byte[] key, byte[] value) {
+        if (node.leaf) {
+            int i = search(node.keys, key);
+            if (i >= 0) {
+                node.values.set(i, value);
+            } else {
+                node.keys.add(-i - 1, key);
+                node.values.add(-i - 1, value);
+                size++;
+            }
+            return encodedSize(node) > pool.pageSize() ? splitLeaf(node) : store(node);
+        }
+
+        int c = childIndex(node, key);
+        Split split = insert(load(node.children.get(c)), key, value);
+        if (split == null) return null;
+        node.keys.add(c, split.key());
+        node.children.add(c + 1, split.rightPageId());
+        return encodedSize(node) > pool.pageSize() ? splitInternal(node) : store(node);
+    }
+
+    // Splits at the byte midpoint so variable-length entries leave both halves roughly half full
+    private Split splitLeaf(Node left) {
+        int total = encodedSize(left) - NODE_HEADER;
+        int bytes = 0;
+        int mid = 0;
+        while (mid < left.keys.size() - 1 && bytes < total / 2) {
+            bytes += 4 + left.keys.get(mid).length + left.values.get(mid).length;
+            mid++;
+        }
+        Node right = new Node(pool.allocate(), true);
+        right.keys.addAll(left.keys.subList(mid, left.keys.size()));
+        right.values.addAll(left.values.subList(mid, left.values.size()));
+        left.keys.subList(mid, left.keys.size()).clear();
+        left.values.subList(mid, left.values.size()).clear();
+        right.next = left.next;
+        left.next = right.pageId;
+        checkFits(left);
+        checkFits(right);
+        store(left);
+        store(right);
+        return new Split(right.keys.get(0), right.pageId);
+    }
+
+    // Splits at the byte midpoint like splitLeaf: keys run up to maxEntryBytes, so an even split by count
+    // could put the long ones on one side. The middle key moves up, so each side keeps at least one key.
+    private Split splitInternal(Node left) {
+        int total = encodedSize(left) - NODE_HEADER;
+        int bytes = 0;
+        int mid = 0;
+        while (mid < left.keys.size() - 2 && bytes < total / 2) {
+            bytes += 6 + left.keys.get(mid).length;
+            mid++;
+        }
+        byte[] separator = left.keys.get(mid);
+        Node right = new Node(pool.allocate(), false);
+        right.keys.addAll(left.keys.subList(mid + 1, left.keys.size()));
+        right.children.addAll(left.children.subList(mid + 1, left.children.size()));
+        left.keys.subList(mid, left.keys.size()).clear();
+        left.children.subList(mid + 1, left.children.size()).clear();
+        checkFits(left);
+        checkFits(right);
+        store(left);
+        store(right);
+        return new Split(separator, right.pageId);
+    }
+
+    // Index of the child that may hold key: the number of separators <= key
+    private int childIndex(Node node, byte[] key) {
+        int i = search(node.keys, key);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    // Binary search with Collections.binarySearch semantics
+    private int search(List<byte[]> keys, byte[] key) {
+        int lo = 0;
+        int hi = keys.size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = Arrays.compareUnsigned(keys.get(mid), key);
+            if (c < 0) lo = mid + 1;
+            else if (c > 0) hi = mid - 1;
+            else return mid;
+        }
+        return -(lo + 1);
+    }
+
+    private Node load(int pageId) {
+        ByteBuffer page = pool.read(pageId);
+        boolean leaf = page.get() == LEAF;
+        Node node = new Node(pageId, leaf);
+        int n = page.getShort() & 0xFFFF;
+        if (leaf) {
+            node.next = page.getInt();
+            for (int i = 0; i < n; i++) {
+                node.keys.add(readBytes(page));
+                node.values.add(readBytes(page));
+            }
+        } else {
+            node.children.add(page.getInt());
+            for (int i = 0; i < n; i++) {
+                node.keys.add(readBytes(page));
+                node.children.add(page.getInt());
+            }
+        }
+        return node;
+    }
+
+    // Always returns null so callers can write `return store(node)` for the no-split case
+    private Split store(Node node) {
+        ByteBuffer page = pool.write(node.pageId);
+        page.put(node.leaf ? LEAF : INTERNAL);
+        page.putShort((short) node.keys.size());
+        if (node.leaf) {
+            page.putInt(node.next);
+            for (int i = 0; i < node.keys.size(); i++) {
+                writeBytes(page, node.keys.get(i));
+                writeBytes(page, node.values.get(i));
+            }
+        } else {
+            page.putInt(node.children.get(0));
+            for (int i = 0; i < node.keys.size(); i++) {
+                writeBytes(page, node.keys.get(i));
+                page.putInt(node.children.get(i + 1));
+            }
+        }
+        return null;
+    }
+
+    private int encodedSize(Node node) {
+        int bytes = NODE_HEADER;
+        for (int i = 0; i < node.keys.size(); i++) {
+            bytes += 2 + node.keys.get(i).length + (node.leaf ? 2 + node.values.get(i).length : 4);
+        }
+        return bytes;
+    }
+
+    private void checkFits(Node node) {
+        if (encodedSize(node) > pool.pageSize()) {
+            throw new IllegalStateException("Split left page " + node.pageId + " over the page size");
+        }
+    }
+
+    private void writeHeader() {
+        pool.write(0).putInt(MAGIC).putInt(VERSION).putInt(pool.pageSize()).putInt(rootPageId).putLong(size);
+    }
+
+    private byte[] encodeKey(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(ByteBuffer page) {
+        byte[] bytes = new byte[page.getShort() & 0xFFFF];
+        page.get(bytes);
+        return bytes;
+    }
+
+    private static void writeBytes(ByteBuffer page, byte[] bytes) {
+        page.putShort((short) bytes.length);
+        page.put(bytes);
+    }
+}
@@ -0,0 +1,117 @@
+package com.studentrentals.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Bounded LRU cache of pages over a Pager. Dirty pages are written back on eviction and on flush().
+// Callers must not keep a returned buffer across another call into the pool (it may be recycled).
+// Not thread-safe; the owning structure serialises access.
+public class BufferPool implements AutoCloseable {
+
+    private static final class Frame {
+        final ByteBuffer data;
+        boolean dirty;
+
+        Frame(ByteBuffer data) {
+            this.data = data;
+        }
+    }
+
+    private final Pager pager;
+    private final int capacity;
+    private final LinkedHashMap<Integer, Frame> frames;
+    private long hits;
+    private long misses;
+
+    public BufferPool(Pager pager, int capacity) {
+        if (capacity < 8) throw new IllegalArgumentException("Buffer pool needs at least 8 pages");
+        this.pager = pager;
+        this.capacity = capacity;
+        this.frames = new LinkedHashMap<>(capacity * 2, 0.75f, true); // access order = LRU
+    }
+
+    public int pageSize() { return pager.pageSize(); }
+    public int pageCount() { return pager.pageCount(); }
+    public long hits() { return hits; }
+    public long misses() { return misses; }
+
+    // Page contents for reading, positioned at 0
+    public ByteBuffer read(int pageId) {
+        return frame(pageId).data.clear();
+    }
+
+    // Page contents for overwriting; the page is written back later
+    public ByteBuffer write(int pageId) {
+        Frame frame = frame(pageId);
+        frame.dirty = true;
+        return frame.data.clear();
+    }
+
+    // A fresh zeroed page, already marked dirty
+    public int allocate() {
+        int pageId = pager.allocate();
+        Frame frame = new Frame(ByteBuffer.allocate(pager.pageSize()));
+        frame.dirty = true;
+        install(pageId, frame);
+        return pageId;
+    }
+
+    public void flush() throws IOException {
+        for (Map.Entry<Integer, Frame> e : frames.entrySet()) {
+            Frame frame = e.getValue();
+            if (frame.dirty) {
+                pager.write(e.getKey(), frame.data);
+                frame.dirty = false;
+            }
+        }
+        pager.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            pager.close();
+        }
+    }
+
+    private Frame frame(int pageId) {
+        Frame frame = frames.get(pageId);
+        if (frame != null) {
+            hits++;
+            return frame;
+        }
+        misses++;
+        ByteBuffer data = ByteBuffer.allocate(pager.pageSize());
+        try {
+            pager.read(pageId, data);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read page " + pageId, e);
+        }
+        frame = new Frame(data);
+        install(pageId, frame);
+        return frame;
+    }
+
+    private void install(int pageId, Frame frame) {
+        frames.put(pageId, frame);
+        if (frames.size() <= capacity) return;
+
+        Iterator<Map.Entry<Integer, Frame>> eldest = frames.entrySet().iterator();
+        Map.Entry<Integer, Frame> victim = eldest.next();
+        if (victim.getKey() == pageId) return; // never evict the page we're handing out
+        if (victim.getValue().dirty) {
+            try {
+                pager.write(victim.getKey(), victim.getValue().data);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write page " + victim.getKey(), e);
+            }
+        }
+        eldest.remove();
+    }
+}
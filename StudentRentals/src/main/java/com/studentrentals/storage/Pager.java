@@ -0,0 +1,69 @@
+package com.studentrentals.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Fixed-size pages in one file, addressed by page number. Not thread-safe; BufferPool serialises access.
+public class Pager implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final int pageSize;
+    private int pageCount;
+
+    public Pager(Path path, int pageSize) throws IOException {
+        if (Integer.bitCount(pageSize) != 1 || pageSize < 512) {
+            throw new IllegalArgumentException("Page size must be a power of two >= 512");
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        this.channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.pageSize = pageSize;
+        this.pageCount = (int) (channel.size() / pageSize);
+    }
+
+    public int pageSize() { return pageSize; }
+    public int pageCount() { return pageCount; }
+
+    // Reserves the next page number; the file grows when the page is first written
+    public int allocate() {
+        return pageCount++;
+    }
+
+    // Fills dst (pageSize bytes) with the page; pages never written read as zeros
+    public void read(int pageId, ByteBuffer dst) throws IOException {
+        checkPage(pageId);
+        dst.clear();
+        long offset = (long) pageId * pageSize;
+        while (dst.hasRemaining()) {
+            int n = channel.read(dst, offset + dst.position());
+            if (n < 0) break;
+        }
+        while (dst.hasRemaining()) dst.put((byte) 0);
+        dst.flip();
+    }
+
+    public void write(int pageId, ByteBuffer src) throws IOException {
+        checkPage(pageId);
+        ByteBuffer page = src.duplicate().clear();
+        long offset = (long) pageId * pageSize;
+        while (page.hasRemaining()) channel.write(page, offset + page.position());
+    }
+
+    public void force() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void checkPage(int pageId) {
+        if (pageId < 0 || pageId >= pageCount) throw new IllegalArgumentException("No such page: " + pageId);
+    }
+}
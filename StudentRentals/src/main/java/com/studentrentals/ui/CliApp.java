@@ -1,34 +1,125 @@
 package com.studentrentals.ui;
 
+import com.studentrentals.persistence.Journal;
+import com.studentrentals.persistence.JournalMutationLog;
+import com.studentrentals.persistence.JournalReplayer;
+import com.studentrentals.persistence.MutationLog;
+import com.studentrentals.persistence.SnapshotStore;
 import com.studentrentals.repository.BookingRepository;
+import com.studentrentals.repository.DiskBookingRepository;
+import com.studentrentals.repository.DiskRoomRepository;
+import com.studentrentals.repository.InMemoryBookingRepository;
+import com.studentrentals.repository.InMemoryPropertyRepository;
+import com.studentrentals.repository.InMemoryRoomRepository;
+import com.studentrentals.repository.InMemoryUserRepository;
+import com.studentrentals.repository.OffHeapRoomRepository;
 import com.studentrentals.repository.PropertyRepository;
 import com.studentrentals.repository.RoomRepository;
 import com.studentrentals.repository.UserRepository;
 import com.studentrentals.service.AuthService;
 import com.studentrentals.service.BookingService;
+import com.studentrentals.service.PendingExpiryScheduler;
 import com.studentrentals.service.PropertyService;
+import com.studentrentals.service.SearchService;
+import com.studentrentals.service.SubscriptionService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Scanner;
 
 public class CliApp {
 
     // Shared repositories
-    private final UserRepository userRepository = new UserRepository();
-    private final PropertyRepository propertyRepository = new PropertyRepository();
-    private final RoomRepository roomRepository = new RoomRepository();
-    private final BookingRepository bookingRepository = new BookingRepository();
+    private final UserRepository userRepository = new InMemoryUserRepository();
+    private final PropertyRepository propertyRepository = new InMemoryPropertyRepository();
+    // -Dstudentrentals.roomStorage=offheap keeps room records in a direct buffer instead of as objects,
+    // =disk in an on-disk B+tree
+    private final RoomRepository roomRepository;
+    private final DiskRoomRepository diskRooms;
+    private final BookingRepository bookingRepository;
+    // Set when -Dstudentrentals.storage=disk: bookings kept in an on-disk B+tree instead of on-heap
+    private final DiskBookingRepository diskBookings;
+
+    // Redo journal + snapshot (-Dstudentrentals.dataDir, default ./data). Startup maps the
+    // snapshot, then replays only the journal written after it.
+    private final Journal journal;
+    private final SnapshotStore snapshotStore;
+    private final long snapshotEveryBytes = Long.getLong("studentrentals.snapshotEveryBytes", 8L << 20);
+    private long lastSnapshotPosition;
+
+    private final PendingExpiryScheduler expiryScheduler;
 
     // Shared services
-    private final AuthService authService = new AuthService(userRepository);
-    private final PropertyService propertyService = new PropertyService(propertyRepository, roomRepository);
-    private final BookingService bookingService = new BookingService(roomRepository, bookingRepository);
+    private final AuthService authService;
+    private final PropertyService propertyService;
+    private final BookingService bookingService;
+    private final SearchService searchService;
+    private final SubscriptionService subscriptionService;
 
     // Menus (DI)
-    private final StudentMenu studentMenu = new StudentMenu(roomRepository, bookingService);
-    private final HomeownerMenu homeownerMenu = new HomeownerMenu(propertyService, bookingService);
+    private final StudentMenu studentMenu;
+    private final HomeownerMenu homeownerMenu;
+
+    public CliApp() {
+        Path dataDir = Path.of(System.getProperty("studentrentals.dataDir", "data"));
+        snapshotStore = new SnapshotStore(dataDir.resolve("studentrentals.snapshot"));
+        try {
+            switch (System.getProperty("studentrentals.roomStorage", "memory")) {
+                case "memory" -> {
+                    diskRooms = null;
+                    roomRepository = new InMemoryRoomRepository();
+                }
+                case "offheap" -> {
+                    diskRooms = null;
+                    roomRepository = new OffHeapRoomRepository();
+                }
+                case "disk" -> {
+                    diskRooms = DiskRoomRepository.open(dataDir.resolve("rooms.db"), 8192,
+                            Integer.getInteger("studentrentals.roomCachePages", 1024));
+                    roomRepository = diskRooms;
+                }
+                default -> throw new IllegalArgumentException("studentrentals.roomStorage must be memory, offheap or disk");
+            }
+            switch (System.getProperty("studentrentals.storage", "memory")) {
+                case "memory" -> diskBookings = null;
+                case "disk" -> diskBookings = DiskBookingRepository.open(dataDir.resolve("bookings.db"), 8192,
+                        Integer.getInteger("studentrentals.bookingCachePages", 1024));
+                default -> throw new IllegalArgumentException("studentrentals.storage must be memory or disk");
+            }
+            bookingRepository = diskBookings != null ? diskBookings : new InMemoryBookingRepository();
+            journal = Journal.open(dataDir.resolve("studentrentals.wal"));
+            long from = 0;
+            if (snapshotStore.exists()) {
+                from = snapshotStore.load(userRepository, propertyRepository, roomRepository, bookingRepository);
+            }
+            new JournalReplayer(userRepository, propertyRepository, roomRepository, bookingRepository)
+                    .replay(journal, from);
+            lastSnapshotPosition = from;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load data from " + dataDir, e);
+        }
+        MutationLog mutationLog = new JournalMutationLog(journal);
+
+        // Unanswered booking requests are cancelled after this many hours (-Dstudentrentals.pendingExpiryHours)
+        expiryScheduler = new PendingExpiryScheduler(bookingRepository, mutationLog,
+                Duration.ofHours(Long.getLong("studentrentals.pendingExpiryHours", 72)), Duration.ofMinutes(1));
+
+        authService = new AuthService(userRepository, mutationLog);
+        propertyService = new PropertyService(propertyRepository, roomRepository, mutationLog);
+        bookingService = new BookingService(roomRepository, bookingRepository, expiryScheduler, mutationLog);
+        searchService = new SearchService(roomRepository, propertyRepository, Integer.getInteger("studentrentals.searchCacheEntries", 256));
+
+        subscriptionService = new SubscriptionService(roomRepository);
+
+        studentMenu = new StudentMenu(roomRepository, searchService, bookingService, subscriptionService);
+        homeownerMenu = new HomeownerMenu(propertyService, bookingService);
+    }
 
     public void run() {
-        try (Scanner scanner = new Scanner(System.in)) {
+        expiryScheduler.start();
+        try (Scanner scanner = new Scanner(System.in); diskRooms; diskBookings; expiryScheduler; journal) {
             while (true) {
                 printMainMenu();
                 String choice = scanner.nextLine().trim();
@@ -38,14 +129,30 @@ public class CliApp {
                     case "2" -> registerHomeowner(scanner);
                     case "3" -> loginAndRoute(scanner);
                     case "0" -> {
+                        writeSnapshot();
                         System.out.println("Bye!");
                         return;
                     }
                     default -> System.out.println("Invalid choice. Try again.");
                 }
 
+                // periodic snapshot once enough journal has accumulated; the main menu is a quiet point
+                if (journal.position() - lastSnapshotPosition >= snapshotEveryBytes) writeSnapshot();
                 System.out.println();
             }
+        } catch (IOException e) {
+            System.out.println("Warning: could not close data files cleanly: " + e.getMessage());
+        }
+    }
+
+    private void writeSnapshot() {
+        try {
+            long position = journal.position(); // before reading state: later changes stay in the tail
+            if (position == lastSnapshotPosition && snapshotStore.exists()) return;
+            snapshotStore.write(position, userRepository, propertyRepository, roomRepository, bookingRepository);
+            lastSnapshotPosition = position;
+        } catch (IOException e) {
+            System.out.println("Warning: snapshot failed (journal still has everything): " + e.getMessage());
         }
     }
 
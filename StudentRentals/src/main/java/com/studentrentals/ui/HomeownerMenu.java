@@ -7,8 +7,11 @@ import com.studentrentals.service.BookingService;
 import com.studentrentals.service.PropertyService;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 public class HomeownerMenu {
@@ -35,6 +38,8 @@ public class HomeownerMenu {
             System.out.println("8) View pending booking requests");
             System.out.println("9) Respond to booking request (ACCEPT/REJECT)");
             System.out.println("10) View all my bookings");
+            System.out.println("11) Respond to several booking requests at once");
+            System.out.println("12) View room occupancy");
             System.out.println("0) Logout");
             System.out.print("Choose: ");
 
@@ -51,6 +56,8 @@ public class HomeownerMenu {
                     case "8" -> viewPendingRequests(owner);
                     case "9" -> respondToRequest(scanner, owner);
                     case "10" -> viewAllBookings(owner);
+                    case "11" -> respondToRequests(scanner, owner);
+                    case "12" -> viewRoomOccupancy(scanner, owner);
                     case "0" -> { System.out.println("Logged out."); return; }
                     default -> System.out.println("Invalid choice.");
                 }
@@ -103,7 +110,7 @@ public class HomeownerMenu {
 
         for (var p : properties) {
             System.out.println(p + " | desc=" + p.getDescription());
-            for (var r : p.getRooms()) {
+            for (var r : propertyService.viewRooms(p)) {
                 System.out.println("  - " + r);
             }
         }
@@ -198,6 +205,44 @@ public class HomeownerMenu {
         System.out.println("Updated: " + updated.getBookingId() + " status=" + updated.getStatus());
     }
 
+    private void respondToRequests(Scanner scanner, Homeowner owner) {
+        Map<String, BookingStatus> decisions = new LinkedHashMap<>();
+        System.out.print("Booking IDs to ACCEPT (comma-separated, Enter=none): ");
+        for (String id : readIds(scanner)) decisions.put(id, BookingStatus.ACCEPTED);
+        System.out.print("Booking IDs to REJECT (comma-separated, Enter=none): ");
+        for (String id : readIds(scanner)) decisions.put(id, BookingStatus.REJECTED);
+
+        if (decisions.isEmpty()) {
+            System.out.println("Nothing to do.");
+            return;
+        }
+
+        var result = bookingService.respondToRequests(owner.getUserId(), decisions);
+        for (var b : result.getAccepted()) System.out.println(" - " + b.getBookingId() + " ACCEPTED");
+        for (var b : result.getRejected()) System.out.println(" - " + b.getBookingId() + " REJECTED");
+        for (var b : result.getAutoRejected()) {
+            System.out.println(" - " + b.getBookingId() + " REJECTED (overlaps an accepted booking)");
+        }
+        for (var e : result.getFailures().entrySet()) {
+            System.out.println(" - " + e.getKey() + " not updated: " + e.getValue());
+        }
+    }
+
+    private void viewRoomOccupancy(Scanner scanner, Homeowner owner) {
+        System.out.print("Property ID: ");
+        String propertyId = scanner.nextLine().trim();
+
+        System.out.print("Room ID: ");
+        String roomId = scanner.nextLine().trim();
+
+        YearMonth month = readYearMonth(scanner, "Month (YYYY-MM): ");
+
+        double rate = propertyService.occupancyRate(owner.getUserId(), propertyId, roomId);
+        int free = propertyService.freeNights(owner.getUserId(), propertyId, roomId, month);
+        System.out.printf("Occupancy over availability window: %.1f%%%n", rate * 100);
+        System.out.println("Free nights in " + month + ": " + free);
+    }
+
     private void viewAllBookings(Homeowner owner) {
         var bookings = bookingService.getBookingsForOwner(owner.getUserId());
         if (bookings.isEmpty()) {
@@ -212,6 +257,15 @@ public class HomeownerMenu {
 
     // ---------- helpers ----------
 
+    private List<String> readIds(Scanner scanner) {
+        List<String> ids = new ArrayList<>();
+        for (String p : scanner.nextLine().split(",")) {
+            String s = p.trim();
+            if (!s.isEmpty()) ids.add(s);
+        }
+        return ids;
+    }
+
     private BookingStatus readDecision(Scanner scanner) {
         while (true) {
             System.out.print("Decision (1=ACCEPT, 2=REJECT): ");
@@ -294,6 +348,17 @@ public class HomeownerMenu {
         }
     }
 
+    private YearMonth readYearMonth(Scanner scanner, String prompt) {
+        while (true) {
+            try {
+                System.out.print(prompt);
+                return YearMonth.parse(scanner.nextLine().trim());
+            } catch (Exception ex) {
+                System.out.println("Invalid month format. Use YYYY-MM.");
+            }
+        }
+    }
+
     private LocalDate readOptionalDate(Scanner scanner, String prompt) {
         while (true) {
             System.out.print(prompt);
@@ -6,43 +6,58 @@ import com.studentrentals.model.property.RoomType;
 import com.studentrentals.model.user.Student;
 import com.studentrentals.repository.RoomRepository;
 import com.studentrentals.service.BookingService;
+import com.studentrentals.service.SavedSearch;
 import com.studentrentals.service.SearchCriteria;
+import com.studentrentals.service.SearchMatch;
+import com.studentrentals.service.SearchPage;
 import com.studentrentals.service.SearchService;
+import com.studentrentals.service.SearchSort;
+import com.studentrentals.service.SubscriptionService;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 
 public class StudentMenu {
 
+    private static final int PAGE_SIZE = 10;
+
     private final RoomRepository roomRepository;
     private final SearchService searchService;
     private final BookingService bookingService;
+    private final SubscriptionService subscriptionService;
 
-    public StudentMenu(RoomRepository roomRepository, BookingService bookingService) {
+    public StudentMenu(RoomRepository roomRepository, SearchService searchService, BookingService bookingService,
+                       SubscriptionService subscriptionService) {
         this.roomRepository = roomRepository;
-        this.searchService = new SearchService(roomRepository);
+        this.searchService = searchService;
         this.bookingService = bookingService;
+        this.subscriptionService = subscriptionService;
     }
 
     public void run(Scanner scanner, Student student) {
         while (true) {
             System.out.println("=== Student Menu ===");
             System.out.println("Logged in as: " + student.getName() + " (" + student.getRole() + ")");
+            int newMatches = subscriptionService.pendingMatchCount(student.getUserId());
+            if (newMatches > 0) System.out.println("New rooms matching your saved searches: " + newMatches + " (option 5)");
             System.out.println("1) Search rooms");
             System.out.println("2) View room details by ID");
             System.out.println("3) Request booking");
             System.out.println("4) View my bookings");
+            System.out.println("5) Saved searches and new matches");
             System.out.println("0) Logout");
             System.out.print("Choose: ");
 
             String choice = scanner.nextLine().trim();
             try {
                 switch (choice) {
-                    case "1" -> searchRooms(scanner);
+                    case "1" -> searchRooms(scanner, student);
                     case "2" -> viewRoomDetails(scanner);
                     case "3" -> requestBooking(scanner, student);
                     case "4" -> viewMyBookings(student);
+                    case "5" -> savedSearches(scanner, student);
                     case "0" -> {
                         System.out.println("Logged out.");
                         return;
@@ -57,23 +72,93 @@ public class StudentMenu {
         }
     }
 
-    private void searchRooms(Scanner scanner) {
+    private void searchRooms(Scanner scanner, Student student) {
         SearchCriteria criteria = readCriteria(scanner);
-        List<Room> results = searchService.search(criteria);
+        SearchSort sort = readSort(scanner, criteria.getKeywords() != null);
+        showResults(scanner, criteria, sort);
+
+        if (criteria.getKeywords() != null) return; // keyword searches can't be saved
+        System.out.print("Save this search and get told about new matching rooms? (y/N): ");
+        if ("y".equalsIgnoreCase(scanner.nextLine().trim())) {
+            SavedSearch saved = subscriptionService.subscribe(student.getUserId(), criteria);
+            System.out.println("Search saved. ID=" + saved.getSubscriptionId());
+        }
+    }
+
+    private void showResults(Scanner scanner, SearchCriteria criteria, SearchSort sort) {
+        if (Boolean.getBoolean("studentrentals.explainSearches")) System.out.println(searchService.explain(criteria));
+        SearchPage page = searchService.searchPage(criteria, sort, null, PAGE_SIZE);
 
-        if (results.isEmpty()) {
+        if (page.getRooms().isEmpty()) {
             System.out.println("No rooms match your criteria.");
             return;
         }
 
-        System.out.println("Matched rooms:");
-        for (Room r : results) {
-            System.out.println(" - " + r.getRoomId() + " | " + r.getType() + " | £" + r.getMonthlyRent()
-                    + " | " + r.getCity()
-                    + " | " + r.getAvailableFrom() + " to " + r.getAvailableTo());
+        if (criteria.getCity() != null) {
+            int listed = searchService.count(new SearchCriteria(criteria.getCity(), null, null, null, null, null));
+            System.out.println("Matched rooms (" + listed + " listed in " + criteria.getCity() + "):");
+        } else {
+            System.out.println("Matched rooms:");
+        }
+        while (true) {
+            for (Room r : page.getRooms()) {
+                System.out.println(" - " + r.getRoomId() + " | " + r.getType() + " | £" + r.getMonthlyRent()
+                        + " | " + r.getCity()
+                        + " | " + r.getAvailableFrom() + " to " + r.getAvailableTo());
+            }
+            if (!page.hasMore()) return;
+            System.out.print("More results (Enter=next page, 0=stop): ");
+            if (!scanner.nextLine().trim().isEmpty()) return;
+            page = searchService.searchPage(criteria, sort, page.getNext(), PAGE_SIZE);
         }
     }
 
+    private void savedSearches(Scanner scanner, Student student) {
+        List<SearchMatch> matches = subscriptionService.takeMatches(student.getUserId());
+        if (!matches.isEmpty()) {
+            System.out.println("New matches:");
+            for (SearchMatch m : matches) {
+                roomRepository.findById(m.getRoomId()).ifPresent(r -> System.out.println(" - " + r.getRoomId()
+                        + " | " + r.getType() + " | £" + r.getMonthlyRent() + " | " + r.getCity()
+                        + " | " + r.getAvailableFrom() + " to " + r.getAvailableTo()
+                        + " (saved search " + m.getSubscriptionId() + ")"));
+            }
+        }
+
+        List<SavedSearch> searches = subscriptionService.getSubscriptions(student.getUserId());
+        if (searches.isEmpty()) {
+            System.out.println("No saved searches. Search rooms (option 1) and choose to save the search.");
+            return;
+        }
+        System.out.println("Saved searches:");
+        for (int i = 0; i < searches.size(); i++) {
+            System.out.println(" " + (i + 1) + ") " + searches.get(i).getSubscriptionId() + " | " + describe(searches.get(i).getCriteria()));
+        }
+        System.out.print("Delete a saved search (number, Enter=back): ");
+        String s = scanner.nextLine().trim();
+        if (s.isEmpty()) return;
+        try {
+            SavedSearch chosen = searches.get(Integer.parseInt(s) - 1);
+            subscriptionService.unsubscribe(student.getUserId(), chosen.getSubscriptionId());
+            System.out.println("Deleted saved search " + chosen.getSubscriptionId());
+        } catch (NumberFormatException | IndexOutOfBoundsException ex) {
+            System.out.println("Invalid choice.");
+        }
+    }
+
+    private String describe(SearchCriteria c) {
+        List<String> parts = new ArrayList<>();
+        parts.add(c.getCity() == null ? "any city" : c.getCity());
+        if (c.getMinPrice() != null || c.getMaxPrice() != null) {
+            parts.add("£" + (c.getMinPrice() == null ? "0" : c.getMinPrice()) + "-" + (c.getMaxPrice() == null ? "any" : c.getMaxPrice()));
+        }
+        if (c.getStartDate() != null && c.getEndDate() != null) parts.add(c.getStartDate() + " to " + c.getEndDate());
+        if (c.getRoomType() != null) parts.add(c.getRoomType().toString());
+        if (!c.getRequiredAmenities().isEmpty()) parts.add("with " + String.join(", ", c.getRequiredAmenities()));
+        if (!c.getOptionalAmenities().isEmpty()) parts.add("any of " + String.join(", ", c.getOptionalAmenities()));
+        return String.join(" | ", parts);
+    }
+
     private void viewRoomDetails(Scanner scanner) {
         System.out.print("Room ID: ");
         String roomId = scanner.nextLine().trim();
@@ -116,7 +201,8 @@ public class StudentMenu {
         for (var b : bookings) {
             System.out.println(" - " + b);
         }
-        System.out.println("Legend: " + BookingStatus.PENDING + "/" + BookingStatus.ACCEPTED + "/" + BookingStatus.REJECTED);
+        System.out.println("Legend: " + BookingStatus.PENDING + "/" + BookingStatus.ACCEPTED + "/" + BookingStatus.REJECTED
+                + "/" + BookingStatus.CANCELLED + " (no answer before the request expired)");
     }
 
     private SearchCriteria readCriteria(Scanner scanner) {
@@ -134,7 +220,13 @@ public class StudentMenu {
 
         RoomType type = readOptionalRoomType(scanner);
 
-        return new SearchCriteria(city, min, max, start, end, type);
+        List<String> required = readAmenityList(scanner, "Must have amenities (comma-separated, e.g. Ensuite,Bills included): ");
+        List<String> optional = readAmenityList(scanner, "Any of these amenities (comma-separated): ");
+
+        System.out.print("Keywords in address/description (e.g. near campus garden, \"quiet street\"): ");
+        String keywords = scanner.nextLine().trim();
+
+        return new SearchCriteria(city, min, max, start, end, type, required, optional, keywords);
     }
 
     private Double readOptionalDouble(Scanner scanner, String prompt) {
@@ -163,6 +255,23 @@ public class StudentMenu {
         }
     }
 
+    private SearchSort readSort(Scanner scanner, boolean keywords) {
+        while (true) {
+            if (keywords) {
+                System.out.print("Sort by (Enter/4=best match, 1=rent low-high, 2=rent high-low, 3=soonest available): ");
+            } else {
+                System.out.print("Sort by (Enter/1=rent low-high, 2=rent high-low, 3=soonest available): ");
+            }
+            String s = scanner.nextLine().trim();
+            if (s.isEmpty()) return keywords ? SearchSort.RELEVANCE : SearchSort.RENT_ASCENDING;
+            if ("4".equals(s) && keywords) return SearchSort.RELEVANCE;
+            if ("1".equals(s)) return SearchSort.RENT_ASCENDING;
+            if ("2".equals(s)) return SearchSort.RENT_DESCENDING;
+            if ("3".equals(s)) return SearchSort.SOONEST_AVAILABLE;
+            System.out.println("Invalid choice.");
+        }
+    }
+
     private RoomType readOptionalRoomType(Scanner scanner) {
         while (true) {
             System.out.print("Room type (Enter=any, 1=SINGLE, 2=DOUBLE): ");
@@ -174,6 +283,17 @@ public class StudentMenu {
         }
     }
 
+    private List<String> readAmenityList(Scanner scanner, String prompt) {
+        System.out.print(prompt);
+        String line = scanner.nextLine().trim();
+        List<String> amenities = new ArrayList<>();
+        for (String part : line.split(",")) {
+            String s = part.trim();
+            if (!s.isEmpty()) amenities.add(s);
+        }
+        return amenities;
+    }
+
     private LocalDate readDate(Scanner scanner, String prompt) {
         while (true) {
             try {
@@ -0,0 +1,163 @@
+package com.studentrentals.util;
+
+import java.util.function.Consumer;
+
+// Balanced (AVL) interval tree over closed day ranges [start, end], e.g. LocalDate.toEpochDay().
+// Nodes are ordered by (start, end, id) and each node keeps the max end of its subtree,
+// so queries can skip whole subtrees that end too early or start too late.
+public class IntervalTree {
+
+    private static final class Node {
+        final int start;
+        final int end;
+        final String id;
+        int maxEnd;
+        int height = 1;
+        Node left;
+        Node right;
+
+        Node(int start, int end, String id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node root;
+    private int size;
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    public void insert(int start, int end, String id) {
+        if (end < start) throw new IllegalArgumentException("Interval end before start");
+        root = insert(root, start, end, id);
+    }
+
+    public boolean remove(int start, int end, String id) {
+        int before = size;
+        root = remove(root, start, end, id);
+        return size < before;
+    }
+
+    // true if any stored interval shares at least one day with [start, end]; allocation-free
+    public boolean anyOverlap(int start, int end) {
+        Node n = root;
+        while (n != null) {
+            if (n.start <= end && n.end >= start) return true;
+            // go left if something there can still reach start, otherwise right
+            if (n.left != null && n.left.maxEnd >= start) {
+                n = n.left;
+            } else {
+                if (n.start > end) return false;
+                n = n.right;
+            }
+        }
+        return false;
+    }
+
+    // Intervals sharing at least one day with [start, end]
+    public void forEachOverlapping(int start, int end, Consumer<String> action) {
+        forEachOverlapping(root, start, end, action);
+    }
+
+    private void forEachOverlapping(Node n, int start, int end, Consumer<String> action) {
+        if (n == null || n.maxEnd < start) return;
+        forEachOverlapping(n.left, start, end, action);
+        if (n.start > end) return;
+        if (n.end >= start) action.accept(n.id);
+        forEachOverlapping(n.right, start, end, action);
+    }
+
+    // ---------- AVL maintenance ----------
+
+    private Node insert(Node n, int start, int end, String id) {
+        if (n == null) {
+            size++;
+            return new Node(start, end, id);
+        }
+        int c = compare(start, end, id, n);
+        if (c < 0) n.left = insert(n.left, start, end, id);
+        else if (c > 0) n.right = insert(n.right, start, end, id);
+        else return n; // already present
+        return rebalance(n);
+    }
+
+    private Node remove(Node n, int start, int end, String id) {
+        if (n == null) return null;
+        int c = compare(start, end, id, n);
+        if (c < 0) {
+            n.left = remove(n.left, start, end, id);
+        } else if (c > 0) {
+            n.right = remove(n.right, start, end, id);
+        } else {
+            size--;
+            if (n.left == null) return n.right;
+            if (n.right == null) return n.left;
+            Node successor = n.right;
+            while (successor.left != null) successor = successor.left;
+            Node right = removeMin(n.right);
+            successor.left = n.left;
+            successor.right = right;
+            return rebalance(successor);
+        }
+        return rebalance(n);
+    }
+
+    private Node removeMin(Node n) {
+        if (n.left == null) return n.right;
+        n.left = removeMin(n.left);
+        return rebalance(n);
+    }
+
+    private int compare(int start, int end, String id, Node n) {
+        if (start != n.start) return Integer.compare(start, n.start);
+        if (end != n.end) return Integer.compare(end, n.end);
+        return id.compareTo(n.id);
+    }
+
+    private Node rebalance(Node n) {
+        update(n);
+        int balance = height(n.left) - height(n.right);
+        if (balance > 1) {
+            if (height(n.left.left) < height(n.left.right)) n.left = rotateLeft(n.left);
+            return rotateRight(n);
+        }
+        if (balance < -1) {
+            if (height(n.right.right) < height(n.right.left)) n.right = rotateRight(n.right);
+            return rotateLeft(n);
+        }
+        return n;
+    }
+
+    private Node rotateRight(Node n) {
+        Node l = n.left;
+        n.left = l.right;
+        l.right = n;
+        update(n);
+        update(l);
+        return l;
+    }
+
+    private Node rotateLeft(Node n) {
+        Node r = n.right;
+        n.right = r.left;
+        r.left = n;
+        update(n);
+        update(r);
+        return r;
+    }
+
+    private void update(Node n) {
+        n.height = 1 + Math.max(height(n.left), height(n.right));
+        int max = n.end;
+        if (n.left != null && n.left.maxEnd > max) max = n.left.maxEnd;
+        if (n.right != null && n.right.maxEnd > max) max = n.right.maxEnd;
+        n.maxEnd = max;
+    }
+
+    private int height(Node n) {
+        return n == null ? 0 : n.height;
+    }
+}
@@ -0,0 +1,101 @@
+package com.studentrentals.util;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+
+// Day-by-day occupancy for one room: one bit per epoch day across the availability window,
+// set when an accepted booking covers that day. Range checks scan 64 days per word and allocate nothing.
+// The booked periods themselves are kept too, so a window change rebuilds the bits from them and a
+// booking outside a shrunk window comes back if the window widens again.
+public class OccupancyCalendar {
+
+    private int firstDay;   // epoch day of availableFrom
+    private int lastDay;    // epoch day of availableTo (inclusive)
+    private long[] booked;
+    private int[] periods = new int[8]; // booked [start, end] epoch-day pairs, unclipped
+    private int periodCount;
+
+    public OccupancyCalendar(LocalDate availableFrom, LocalDate availableTo) {
+        this.firstDay = (int) availableFrom.toEpochDay();
+        this.lastDay = (int) availableTo.toEpochDay();
+        this.booked = new long[words(lastDay - firstDay + 1)];
+    }
+
+    // true if every day of [start, end] is inside the window and not booked
+    public synchronized boolean isFree(int start, int end) {
+        if (end < start || start < firstDay || end > lastDay) return false;
+        return countBooked(start - firstDay, end - firstDay) == 0;
+    }
+
+    public boolean isFree(LocalDate start, LocalDate end) {
+        return isFree((int) start.toEpochDay(), (int) end.toEpochDay());
+    }
+
+    // Days in [start, end] are marked booked (clipped to the window)
+    public synchronized void markBooked(int start, int end) {
+        if (periodCount * 2 == periods.length) periods = Arrays.copyOf(periods, periods.length * 2);
+        periods[periodCount * 2] = start;
+        periods[periodCount * 2 + 1] = end;
+        periodCount++;
+        setBits(start, end);
+    }
+
+    private void setBits(int start, int end) {
+        int from = Math.max(start, firstDay) - firstDay;
+        int to = Math.min(end, lastDay) - firstDay;
+        for (int i = from; i <= to; ) {
+            int w = i >>> 6;
+            int upto = Math.min(to, (w << 6) + 63);
+            booked[w] |= mask(i & 63, upto & 63);
+            i = upto + 1;
+        }
+    }
+
+    // Available (in-window, unbooked) days of the given month
+    public synchronized int freeNights(YearMonth month) {
+        int start = Math.max((int) month.atDay(1).toEpochDay(), firstDay);
+        int end = Math.min((int) month.atEndOfMonth().toEpochDay(), lastDay);
+        if (end < start) return 0;
+        return (end - start + 1) - countBooked(start - firstDay, end - firstDay);
+    }
+
+    // Fraction of the availability window that is booked
+    public synchronized double occupancyRate() {
+        int days = lastDay - firstDay + 1;
+        return (double) countBooked(0, days - 1) / days;
+    }
+
+    // Moves the window and re-marks every booked period inside it, including periods an earlier,
+    // narrower window had clipped away
+    public synchronized void resize(LocalDate availableFrom, LocalDate availableTo) {
+        int from = (int) availableFrom.toEpochDay();
+        int to = (int) availableTo.toEpochDay();
+        if (from == firstDay && to == lastDay) return;
+        firstDay = from;
+        lastDay = to;
+        booked = new long[words(lastDay - firstDay + 1)];
+        for (int i = 0; i < periodCount; i++) setBits(periods[i * 2], periods[i * 2 + 1]);
+    }
+
+    // Booked bits in [from, to] (bit offsets, inclusive)
+    private int countBooked(int from, int to) {
+        int count = 0;
+        for (int i = from; i <= to; ) {
+            int w = i >>> 6;
+            int upto = Math.min(to, (w << 6) + 63);
+            count += Long.bitCount(booked[w] & mask(i & 63, upto & 63));
+            i = upto + 1;
+        }
+        return count;
+    }
+
+    // bits lo..hi (inclusive) of a word
+    private static long mask(int lo, int hi) {
+        return (-1L << lo) & (-1L >>> (63 - hi));
+    }
+
+    private static int words(int days) {
+        return (days + 63) >>> 6;
+    }
+}
@@ -0,0 +1,459 @@
+package com.studentrentals.util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Compressed bitmap of non-negative ints in the Roaring layout: values are split by their high 16 bits
+// into chunks, and each chunk is stored as a sorted char[] while sparse (<= 4096 values, 8 KB max) or as
+// a 1024-word bitset once dense. AND/OR work chunk by chunk and pick the cheapest pairwise algorithm,
+// so intersecting a sparse bitmap with a dense one costs about the size of the sparse one. Not thread-safe.
+public class RoaringBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size; // number of chunks
+
+    public void add(int value) {
+        char high = high(value);
+        int i = find(high);
+        if (i >= 0) {
+            containers[i] = containers[i].add(low(value));
+        } else {
+            insertChunk(-i - 1, high, new ArrayContainer().add(low(value)));
+        }
+    }
+
+    public void remove(int value) {
+        int i = find(high(value));
+        if (i < 0) return;
+        Container c = containers[i].remove(low(value));
+        if (c.cardinality() == 0) {
+            removeChunk(i);
+        } else {
+            containers[i] = c;
+        }
+    }
+
+    public boolean contains(int value) {
+        int i = find(high(value));
+        return i >= 0 && containers[i].contains(low(value));
+    }
+
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < size; i++) total += containers[i].cardinality();
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public static RoaringBitmap and(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap out = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                Container c = a.containers[i].and(b.containers[j]);
+                if (c.cardinality() > 0) out.appendChunk(a.keys[i], c);
+                i++;
+                j++;
+            }
+        }
+        return out;
+    }
+
+    // |a AND b| without building the intersection
+    public static int andCardinality(RoaringBitmap a, RoaringBitmap b) {
+        int total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                total += a.containers[i].andCardinality(b.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return total;
+    }
+
+    // Number of values whose bit is set in a plain bitset (same layout as toWords), e.g. a scan mask
+    public int andCardinality(long[] words) {
+        int total = 0;
+        for (int i = 0; i < size; i++) total += containers[i].andCardinality(words, keys[i] << 10);
+        return total;
+    }
+
+    public static RoaringBitmap or(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap out = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size || j < b.size) {
+            if (j == b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+                out.appendChunk(a.keys[i], a.containers[i].copy());
+                i++;
+            } else if (i == a.size || a.keys[i] > b.keys[j]) {
+                out.appendChunk(b.keys[j], b.containers[j].copy());
+                j++;
+            } else {
+                out.appendChunk(a.keys[i], a.containers[i].or(b.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return out;
+    }
+
+    public RoaringBitmap copy() {
+        RoaringBitmap out = new RoaringBitmap();
+        for (int i = 0; i < size; i++) out.appendChunk(keys[i], containers[i].copy());
+        return out;
+    }
+
+    // Values in ascending order
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) containers[i].forEach(keys[i] << 16, action);
+    }
+
+    // Plain bitset of the values below `bits` (one long per 64 values), e.g. as a scan mask
+    public long[] toWords(int bits) {
+        long[] words = new long[(bits + 63) >>> 6];
+        orInto(words);
+        if ((bits & 63) != 0) words[words.length - 1] &= (1L << (bits & 63)) - 1;
+        return words;
+    }
+
+    // Sets the bits of this bitmap's values in a plain bitset (values beyond its length are ignored)
+    public void orInto(long[] words) {
+        for (int i = 0; i < size; i++) containers[i].fillWords(words, keys[i] << 10);
+    }
+
+    private int find(char high) {
+        int lo = 0;
+        int hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < high) lo = mid + 1;
+            else if (keys[mid] > high) hi = mid - 1;
+            else return mid;
+        }
+        return -(lo + 1);
+    }
+
+    private void insertChunk(int at, char high, Container c) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, at, keys, at + 1, size - at);
+        System.arraycopy(containers, at, containers, at + 1, size - at);
+        keys[at] = high;
+        containers[at] = c;
+        size++;
+    }
+
+    private void appendChunk(char high, Container c) {
+        insertChunk(size, high, c);
+    }
+
+    private void removeChunk(int at) {
+        System.arraycopy(keys, at + 1, keys, at, size - at - 1);
+        System.arraycopy(containers, at + 1, containers, at, size - at - 1);
+        containers[--size] = null;
+    }
+
+    private static char high(int value) {
+        if (value < 0) throw new IllegalArgumentException("Negative value: " + value);
+        return (char) (value >>> 16);
+    }
+
+    private static char low(int value) {
+        return (char) value;
+    }
+
+    // ---------- containers (one 2^16 chunk each) ----------
+
+    private abstract static class Container {
+        abstract Container add(char x);       // may return a converted container
+        abstract Container remove(char x);
+        abstract boolean contains(char x);
+        abstract int cardinality();
+        abstract Container and(Container other);
+        abstract int andCardinality(Container other);
+        abstract int andCardinality(long[] words, int firstWord);
+        abstract Container or(Container other);
+        abstract Container copy();
+        abstract void forEach(int base, IntConsumer action);
+        abstract void fillWords(long[] words, int firstWord);
+    }
+
+    private static final class ArrayContainer extends Container {
+        char[] values;
+        int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char x) {
+            int i = Arrays.binarySearch(values, 0, cardinality, x);
+            if (i >= 0) return this;
+            if (cardinality == ARRAY_MAX) return toBitmap().add(x);
+            i = -i - 1;
+            if (cardinality == values.length) values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+            System.arraycopy(values, i, values, i + 1, cardinality - i);
+            values[i] = x;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char x) {
+            int i = Arrays.binarySearch(values, 0, cardinality, x);
+            if (i < 0) return this;
+            System.arraycopy(values, i + 1, values, i, cardinality - i - 1);
+            cardinality--;
+            return this;
+        }
+
+        @Override
+        boolean contains(char x) {
+            return Arrays.binarySearch(values, 0, cardinality, x) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] out = new char[cardinality];
+            int n = 0;
+            if (other instanceof ArrayContainer a) {
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < a.cardinality) {
+                    if (values[i] < a.values[j]) i++;
+                    else if (values[i] > a.values[j]) j++;
+                    else { out[n++] = values[i]; i++; j++; }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) out[n++] = values[i];
+                }
+            }
+            return new ArrayContainer(out, n);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            int n = 0;
+            if (other instanceof ArrayContainer a) {
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < a.cardinality) {
+                    if (values[i] < a.values[j]) i++;
+                    else if (values[i] > a.values[j]) j++;
+                    else { n++; i++; j++; }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) n++;
+                }
+            }
+            return n;
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer) return other.or(this);
+            ArrayContainer a = (ArrayContainer) other;
+            if (cardinality + a.cardinality > ARRAY_MAX) return toBitmap().or(a);
+            char[] out = new char[Math.max(4, cardinality + a.cardinality)];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality || j < a.cardinality) {
+                if (j == a.cardinality || (i < cardinality && values[i] < a.values[j])) out[n++] = values[i++];
+                else if (i == cardinality || values[i] > a.values[j]) out[n++] = a.values[j++];
+                else { out[n++] = values[i++]; j++; }
+            }
+            return new ArrayContainer(out, n);
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(4, cardinality)), cardinality);
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int i = 0; i < cardinality; i++) action.accept(base | values[i]);
+        }
+
+        @Override
+        void fillWords(long[] words, int firstWord) {
+            for (int i = 0; i < cardinality; i++) {
+                int w = firstWord + (values[i] >>> 6);
+                if (w >= words.length) return;
+                words[w] |= 1L << values[i];
+            }
+        }
+
+        @Override
+        int andCardinality(long[] words, int firstWord) {
+            int n = 0;
+            for (int i = 0; i < cardinality; i++) {
+                int w = firstWord + (values[i] >>> 6);
+                if (w >= words.length) break;
+                n += (int) (words[w] >>> values[i]) & 1;
+            }
+            return n;
+        }
+
+        BitmapContainer toBitmap() {
+            BitmapContainer b = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) b.words[values[i] >>> 6] |= 1L << values[i];
+            b.cardinality = cardinality;
+            return b;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        final long[] words = new long[1024];
+        int cardinality;
+
+        @Override
+        Container add(char x) {
+            long before = words[x >>> 6];
+            long after = before | (1L << x);
+            words[x >>> 6] = after;
+            if (before != after) cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char x) {
+            long before = words[x >>> 6];
+            long after = before & ~(1L << x);
+            words[x >>> 6] = after;
+            if (before != after) cardinality--;
+            return cardinality <= ARRAY_MAX ? toArray() : this;
+        }
+
+        @Override
+        boolean contains(char x) {
+            return (words[x >>> 6] & (1L << x)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) return other.and(this);
+            BitmapContainer b = (BitmapContainer) other;
+            BitmapContainer out = new BitmapContainer();
+            int n = 0;
+            for (int i = 0; i < 1024; i++) {
+                out.words[i] = words[i] & b.words[i];
+                n += Long.bitCount(out.words[i]);
+            }
+            out.cardinality = n;
+            return n <= ARRAY_MAX ? out.toArray() : out;
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer) return other.andCardinality(this);
+            BitmapContainer b = (BitmapContainer) other;
+            int n = 0;
+            for (int i = 0; i < 1024; i++) n += Long.bitCount(words[i] & b.words[i]);
+            return n;
+        }
+
+        @Override
+        Container or(Container other) {
+            BitmapContainer out = (BitmapContainer) copy();
+            if (other instanceof ArrayContainer a) {
+                for (int i = 0; i < a.cardinality; i++) out.add(a.values[i]);
+                return out;
+            }
+            BitmapContainer b = (BitmapContainer) other;
+            int n = 0;
+            for (int i = 0; i < 1024; i++) {
+                out.words[i] |= b.words[i];
+                n += Long.bitCount(out.words[i]);
+            }
+            out.cardinality = n;
+            return out;
+        }
+
+        @Override
+        Container copy() {
+            BitmapContainer out = new BitmapContainer();
+            System.arraycopy(words, 0, out.words, 0, 1024);
+            out.cardinality = cardinality;
+            return out;
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int w = 0; w < 1024; w++) {
+                long bits = words[w];
+                while (bits != 0) {
+                    action.accept(base | (w << 6) | Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+        }
+
+        @Override
+        void fillWords(long[] out, int firstWord) {
+            int n = Math.min(1024, out.length - firstWord);
+            for (int i = 0; i < n; i++) out[firstWord + i] |= words[i];
+        }
+
+        @Override
+        int andCardinality(long[] mask, int firstWord) {
+            int n = Math.min(1024, mask.length - firstWord);
+            int total = 0;
+            for (int i = 0; i < n; i++) total += Long.bitCount(words[i] & mask[firstWord + i]);
+            return total;
+        }
+
+        ArrayContainer toArray() {
+            char[] values = new char[Math.max(4, cardinality)];
+            int n = 0;
+            for (int w = 0; w < 1024; w++) {
+                long bits = words[w];
+                while (bits != 0) {
+                    values[n++] = (char) ((w << 6) | Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+            return new ArrayContainer(values, n);
+        }
+    }
+}
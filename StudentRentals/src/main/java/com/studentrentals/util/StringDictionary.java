@@ -0,0 +1,72 @@
+package com.studentrentals.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// String <-> dense int id mapping, so records can store repeated strings as 4-byte ids.
+// Strings added with intern() stay for good. acquire()/release() count references instead: a string
+// whose count drops to zero is removed and its id reused, so a table with churn (OffHeapRoomRepository)
+// doesn't grow with every string it has ever held. Use one style per dictionary. Not thread-safe.
+public class StringDictionary {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private int[] refs = new int[16];
+    private int[] freeIds = new int[16];
+    private int freeCount;
+
+    public int intern(String s) {
+        Integer id = ids.get(s);
+        return id != null ? id : add(s);
+    }
+
+    // intern() plus one reference
+    public int acquire(String s) {
+        Integer existing = ids.get(s);
+        int id = existing != null ? existing : add(s);
+        if (id >= refs.length) refs = Arrays.copyOf(refs, Math.max(id + 1, refs.length * 2));
+        refs[id]++;
+        return id;
+    }
+
+    // Drops one reference; the last one frees the id for reuse
+    public void release(int id) {
+        if (id >= refs.length || refs[id] <= 0) throw new IllegalStateException("Symbol " + id + " is not acquired");
+        if (--refs[id] > 0) return;
+        ids.remove(strings.get(id));
+        strings.set(id, null);
+        if (freeCount == freeIds.length) freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        freeIds[freeCount++] = id;
+    }
+
+    // id of s, or -1 if it was never interned (or has been released)
+    public int find(String s) {
+        Integer id = ids.get(s);
+        return id == null ? -1 : id;
+    }
+
+    public String get(int id) {
+        return strings.get(id);
+    }
+
+    // One past the highest id handed out (ids of released strings included)
+    public int size() {
+        return strings.size();
+    }
+
+    private int add(String s) {
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+            strings.set(id, s);
+        } else {
+            id = strings.size();
+            strings.add(s);
+        }
+        ids.put(s, id);
+        return id;
+    }
+}
@@ -0,0 +1,23 @@
+package com.studentrentals.util;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+// Fixed pool of locks; a key always maps to the same stripe, different keys usually to different ones.
+public class StripedLocks {
+
+    private final ReentrantLock[] locks;
+
+    public StripedLocks(int stripes) {
+        if (stripes <= 0) throw new IllegalArgumentException("Stripes must be > 0");
+        int size = Integer.highestOneBit(stripes - 1) << 1; // round up to power of two
+        if (stripes == 1) size = 1;
+        locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) locks[i] = new ReentrantLock();
+    }
+
+    public ReentrantLock lockFor(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16); // spread high bits, as HashMap does
+        return locks[h & (locks.length - 1)];
+    }
+}
@@ -0,0 +1,93 @@
+package com.studentrentals.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+// Hierarchical timing wheel: 64 slots per level, each level's slot spanning 64x the level below.
+// Scheduling and cancelling are O(1); each tick fires one level-0 slot, and every 64^n ticks one
+// higher-level slot is cascaded down. No scan over all outstanding timers ever happens.
+public class TimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 6; // 64^6 ticks: ~2000 years at one-second ticks
+
+    public static final class Timeout {
+        private final long expiryTick;
+        private final Runnable task;
+        private volatile boolean cancelled;
+
+        private Timeout(long expiryTick, Runnable task) {
+            this.expiryTick = expiryTick;
+            this.task = task;
+        }
+
+        public void cancel() { cancelled = true; }
+        public boolean isCancelled() { return cancelled; }
+    }
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final ArrayDeque<Timeout>[][] wheels;
+    private long currentTick;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("Tick must be > 0");
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.wheels = new ArrayDeque[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) wheels[level][slot] = new ArrayDeque<>();
+        }
+    }
+
+    // Runs task once at least delayMillis have passed (rounded up to whole ticks)
+    public synchronized Timeout schedule(long delayMillis, Runnable task) {
+        long ticks = Math.max(1, (delayMillis + tickMillis - 1) / tickMillis);
+        Timeout timeout = new Timeout(currentTick + ticks, task);
+        place(timeout);
+        return timeout;
+    }
+
+    // Advances the wheel to wall-clock time nowMillis and runs every timer that fell due
+    public void advanceTo(long nowMillis) {
+        List<Timeout> due = new ArrayList<>();
+        synchronized (this) {
+            long target = (nowMillis - startMillis) / tickMillis;
+            while (currentTick < target) {
+                currentTick++;
+                cascade();
+                ArrayDeque<Timeout> slot = wheels[0][(int) (currentTick & (SLOTS - 1))];
+                due.addAll(slot);
+                slot.clear();
+            }
+        }
+        // run outside the lock so tasks may schedule new timers
+        for (Timeout t : due) {
+            if (!t.cancelled) t.task.run();
+        }
+    }
+
+    // Re-files the current slot of every level whose period just rolled over (highest first)
+    private void cascade() {
+        for (int level = LEVELS - 1; level >= 1; level--) {
+            int shift = level * SLOT_BITS;
+            if ((currentTick & ((1L << shift) - 1)) != 0) continue;
+            ArrayDeque<Timeout> slot = wheels[level][(int) ((currentTick >>> shift) & (SLOTS - 1))];
+            Timeout t;
+            while ((t = slot.poll()) != null) {
+                if (!t.cancelled) place(t);
+            }
+        }
+    }
+
+    private void place(Timeout t) {
+        long delta = t.expiryTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << ((level + 1) * SLOT_BITS)) level++;
+        int slot = (int) ((t.expiryTick >>> (level * SLOT_BITS)) & (SLOTS - 1));
+        wheels[level][slot].add(t);
+    }
+}
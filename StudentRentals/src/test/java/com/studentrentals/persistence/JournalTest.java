@@ -0,0 +1,176 @@
+package com.studentrentals.persistence;
+
+import com.studentrentals.model.booking.Booking;
+import com.studentrentals.model.booking.BookingStatus;
+import com.studentrentals.model.property.Room;
+import com.studentrentals.model.property.RoomType;
+import com.studentrentals.repository.InMemoryBookingRepository;
+import com.studentrentals.repository.InMemoryPropertyRepository;
+import com.studentrentals.repository.InMemoryRoomRepository;
+import com.studentrentals.repository.InMemoryUserRepository;
+import com.studentrentals.service.BookingService;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Samples position() while several threads append, then checks that replaying from every sampled
+// position reads whole records to the end of the log (a mid-record position would fail its CRC and
+// truncate the valid records after it). Then decides bookings the moment they appear, while they are
+// still being journaled, and checks that replay restores every decision (a status record logged ahead
+// of its booking's record would be dropped).
+// Run with: java com.studentrentals.persistence.JournalTest (exits non-zero on failure)
+public class JournalTest {
+
+    private static final int THREADS = 4;
+    private static final int RECORDS_PER_THREAD = 40;
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("journal-test");
+        Path path = dir.resolve("journal.bin");
+        try {
+            positionIsAlwaysARecordBoundary(path);
+            Files.deleteIfExists(path);
+            bookingIsLoggedBeforeItIsVisible();
+            statusChangesReplayAfterTheirBooking(path);
+        } finally {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(dir);
+        }
+        System.out.println("JournalTest passed");
+    }
+
+    private static void positionIsAlwaysARecordBoundary(Path path) throws Exception {
+        List<Long> samples = new ArrayList<>();
+        AtomicBoolean done = new AtomicBoolean();
+        try (Journal journal = Journal.open(path)) {
+            journal.replay(0, (type, payload) -> { });
+
+            Thread sampler = new Thread(() -> {
+                while (!done.get()) {
+                    long p = journal.position();
+                    if (samples.isEmpty() || samples.get(samples.size() - 1) != p) samples.add(p);
+                }
+            });
+            List<Thread> writers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                byte[] payload = new byte[(1 << 18) + t * 97];
+                writers.add(new Thread(() -> {
+                    for (int i = 0; i < RECORDS_PER_THREAD; i++) journal.append((byte) 1, payload);
+                }));
+            }
+            sampler.start();
+            for (Thread w : writers) w.start();
+            for (Thread w : writers) w.join();
+            done.set(true);
+            sampler.join();
+            check(journal.position() == Files.size(path), "position() should reach the end once idle");
+        }
+
+        long end = Files.size(path);
+        int total = THREADS * RECORDS_PER_THREAD;
+        check(samples.size() > 1, "sampler saw no progress");
+        for (long position : samples) {
+            AtomicInteger records = new AtomicInteger();
+            try (Journal journal = Journal.open(path)) {
+                long replayedTo = journal.replay(position, (type, payload) -> records.incrementAndGet());
+                check(replayedTo == end, "replay from " + position + " stopped at " + replayedTo + " of " + end);
+            }
+            check(records.get() <= total, "more records than were appended");
+        }
+        AtomicInteger all = new AtomicInteger();
+        try (Journal journal = Journal.open(path)) {
+            journal.replay(0, (type, payload) -> all.incrementAndGet());
+        }
+        check(all.get() == total, "expected " + total + " records, replayed " + all.get());
+    }
+
+    // The deterministic half of the ordering guarantee: once another thread can find the booking (and
+    // log a decision on it), the booking's own record already has its place in the log
+    private static void bookingIsLoggedBeforeItIsVisible() {
+        LocalDate from = LocalDate.of(2026, 9, 1);
+        InMemoryRoomRepository rooms = new InMemoryRoomRepository();
+        InMemoryBookingRepository bookings = new InMemoryBookingRepository();
+        List<String> visibleWhenLogged = new ArrayList<>();
+        MutationLog log = new MutationLog() {
+            @Override
+            public void bookingSaved(Booking booking) {
+                if (bookings.findById(booking.getBookingId()).isPresent()) visibleWhenLogged.add(booking.getBookingId());
+            }
+        };
+        BookingService service = new BookingService(rooms, bookings, null, log);
+        rooms.save("Cardiff", room("room-0", from));
+        service.requestBooking("stu-1", "room-0", from, from.plusDays(3));
+        check(visibleWhenLogged.isEmpty(), "booking was published before its record was queued");
+    }
+
+    private static void statusChangesReplayAfterTheirBooking(Path path) throws Exception {
+        LocalDate from = LocalDate.of(2026, 9, 1);
+        InMemoryRoomRepository rooms = new InMemoryRoomRepository();
+        InMemoryBookingRepository bookings = new InMemoryBookingRepository();
+        try (Journal journal = Journal.open(path)) {
+            journal.replay(0, (type, payload) -> { });
+            BookingService service = new BookingService(rooms, bookings, null, new JournalMutationLog(journal));
+            for (int r = 0; r < THREADS; r++) rooms.save("Cardiff", room("room-" + r, from));
+
+            AtomicBoolean done = new AtomicBoolean();
+            // Decides whatever is PENDING as soon as it is visible, usually before its record is durable
+            Thread decider = new Thread(() -> {
+                int n = 0;
+                while (!done.get()) {
+                    for (Booking b : service.getPendingRequestsForOwner("owner-1")) {
+                        BookingStatus decision = n++ % 2 == 0 ? BookingStatus.REJECTED : BookingStatus.ACCEPTED;
+                        try {
+                            service.respondToRequest("owner-1", b.getBookingId(), decision);
+                        } catch (IllegalArgumentException overlapping) {
+                            // already accepted for those dates
+                        }
+                    }
+                }
+            });
+            List<Thread> students = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                String roomId = "room-" + t;
+                students.add(new Thread(() -> {
+                    for (int i = 0; i < RECORDS_PER_THREAD * 2; i++) {
+                        LocalDate start = from.plusDays(i * 3L);
+                        service.requestBooking("stu-" + i, roomId, start, start.plusDays(1));
+                    }
+                }));
+            }
+            decider.start();
+            for (Thread s : students) s.start();
+            for (Thread s : students) s.join();
+            done.set(true);
+            decider.join();
+        }
+
+        InMemoryRoomRepository replayedRooms = new InMemoryRoomRepository();
+        InMemoryBookingRepository replayedBookings = new InMemoryBookingRepository();
+        for (int r = 0; r < THREADS; r++) replayedRooms.save("Cardiff", room("room-" + r, from));
+        try (Journal journal = Journal.open(path)) {
+            new JournalReplayer(new InMemoryUserRepository(), new InMemoryPropertyRepository(), replayedRooms,
+                    replayedBookings).replay(journal, 0);
+        }
+        int decided = 0;
+        for (Booking b : bookings.findAll()) {
+            Booking replayed = replayedBookings.findById(b.getBookingId()).orElse(null);
+            check(replayed != null, "booking lost on replay: " + b);
+            check(replayed.getStatus() == b.getStatus(), "status lost on replay: " + b + " came back " + replayed.getStatus());
+            if (b.getStatus() != BookingStatus.PENDING) decided++;
+        }
+        check(decided > 0, "the decider never decided a booking");
+    }
+
+    private static Room room(String id, LocalDate from) {
+        return new Room(id, "prop-1", "owner-1", "Cardiff", RoomType.SINGLE, 500, List.of(), from, from.plusYears(1));
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
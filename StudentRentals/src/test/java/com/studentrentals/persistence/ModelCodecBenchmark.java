@@ -0,0 +1,211 @@
+package com.studentrentals.persistence;
+
+import com.studentrentals.model.booking.Booking;
+import com.studentrentals.model.booking.BookingStatus;
+import com.studentrentals.model.property.Room;
+import com.studentrentals.model.property.RoomType;
+import com.studentrentals.util.BenchmarkTimer;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+
+// ModelCodec against ObjectOutputStream/ObjectInputStream for rooms and bookings, in the two shapes the
+// codec is used in: one record at a time (journal, DiskBookingRepository; no dictionary) and one stream
+// for the whole set (snapshot; symbol dictionary). The model classes are not Serializable, so the Java
+// side writes a Serializable record holding the same fields and rebuilds the model object on read.
+// Run with: java com.studentrentals.persistence.ModelCodecBenchmark
+public class ModelCodecBenchmark {
+
+    private static final int OBJECTS = 20_000;
+    private static final LocalDate BASE = LocalDate.of(2026, 9, 1);
+    private static final String[] CITIES = {"Cardiff", "Bristol", "Leeds", "Manchester", "Glasgow"};
+    private static final String[] AMENITIES = {"WiFi", "Desk", "Ensuite", "Bills included", "Parking"};
+
+    record RoomFields(String roomId, String propertyId, String ownerId, String city, RoomType type,
+                      double rent, ArrayList<String> amenities, LocalDate from, LocalDate to) implements Serializable {
+        static RoomFields of(Room r) {
+            return new RoomFields(r.getRoomId(), r.getPropertyId(), r.getOwnerId(), r.getCity(), r.getType(),
+                    r.getMonthlyRent(), new ArrayList<>(r.getAmenities()), r.getAvailableFrom(), r.getAvailableTo());
+        }
+
+        Room toRoom() {
+            return new Room(roomId, propertyId, ownerId, city, type, rent, amenities, from, to);
+        }
+    }
+
+    record BookingFields(String bookingId, String roomId, String ownerId, String studentId, LocalDate start,
+                         LocalDate end, BookingStatus status, Instant requestedAt) implements Serializable {
+        static BookingFields of(Booking b) {
+            return new BookingFields(b.getBookingId(), b.getRoomId(), b.getOwnerId(), b.getStudentId(),
+                    b.getStartDate(), b.getEndDate(), b.getStatus(), b.getRequestedAt());
+        }
+
+        Booking toBooking() {
+            return new Booking(bookingId, roomId, ownerId, studentId, start, end, status, requestedAt);
+        }
+    }
+
+    private static final List<Room> rooms = new ArrayList<>();
+    private static final List<Booking> bookings = new ArrayList<>();
+
+    public static void main(String[] args) throws IOException {
+        build();
+        System.out.printf("%-22s %12s %12s %12s %12s %12s %12s%n", "case",
+                "codec B/obj", "java B/obj", "codec enc ns", "java enc ns", "codec dec ns", "java dec ns");
+        run("rooms, per record", rooms, false,
+                (out, r) -> ModelCodec.writeRoom(out, r), ModelCodec::readRoom, RoomFields::of, f -> ((RoomFields) f).toRoom());
+        run("bookings, per record", bookings, false,
+                (out, b) -> ModelCodec.writeBooking(out, b), ModelCodec::readBooking, BookingFields::of,
+                f -> ((BookingFields) f).toBooking());
+        run("rooms, one stream", rooms, true,
+                (out, r) -> ModelCodec.writeRoom(out, r), ModelCodec::readRoom, RoomFields::of, f -> ((RoomFields) f).toRoom());
+        run("bookings, one stream", bookings, true,
+                (out, b) -> ModelCodec.writeBooking(out, b), ModelCodec::readBooking, BookingFields::of,
+                f -> ((BookingFields) f).toBooking());
+    }
+
+    // Ids and repeated values are shared instances, as they are when loaded into the repositories
+    private static void build() {
+        Random random = new Random(5);
+        RoomType[] types = RoomType.values();
+        String[] owners = new String[OBJECTS / 20];
+        for (int i = 0; i < owners.length; i++) owners[i] = "own-" + uuidish(random);
+        for (int i = 0; i < OBJECTS; i++) {
+            LocalDate from = BASE.plusDays(random.nextInt(60));
+            List<String> amenities = new ArrayList<>();
+            for (String a : AMENITIES) if (random.nextBoolean()) amenities.add(a);
+            String propertyId = i % 4 == 0 || rooms.isEmpty() ? "prop-" + uuidish(random) : rooms.get(i - 1).getPropertyId();
+            rooms.add(new Room("room-" + uuidish(random), propertyId, owners[i / 20], CITIES[i % CITIES.length],
+                    types[random.nextInt(types.length)], 350 + random.nextInt(500), amenities, from, from.plusMonths(10)));
+        }
+        BookingStatus[] statuses = BookingStatus.values();
+        for (int i = 0; i < OBJECTS; i++) {
+            Room room = rooms.get(random.nextInt(OBJECTS));
+            LocalDate start = room.getAvailableFrom().plusDays(random.nextInt(200));
+            bookings.add(new Booking("book-" + uuidish(random), room.getRoomId(), room.getOwnerId(),
+                    "stu-" + uuidish(random), start, start.plusDays(30 + random.nextInt(90)),
+                    statuses[random.nextInt(statuses.length)], Instant.ofEpochMilli(1_790_000_000_000L + i * 61_000L)));
+        }
+    }
+
+    // Same length and shape as IdGenerator ids
+    private static String uuidish(Random random) {
+        return new UUID(random.nextLong(), random.nextLong()).toString();
+    }
+
+    private interface Encoder<T> {
+        void write(BinaryWriter out, T value);
+    }
+
+    private interface Decoder<T> {
+        T read(BinaryReader in);
+    }
+
+    private static <T> void run(String name, List<T> values, boolean oneStream, Encoder<T> encoder, Decoder<T> decoder,
+                                Function<T, Serializable> toFields,
+                                Function<Object, T> fromFields) throws IOException {
+        List<byte[]> codec = oneStream ? List.of(codecStream(values, encoder)) : codecRecords(values, encoder);
+        List<byte[]> java = oneStream ? List.of(javaStream(values, toFields)) : javaRecords(values, toFields);
+        try {
+            check(codecDecode(codec, oneStream, decoder) == values.size(), name + ": codec decoded the wrong count");
+            check(javaDecode(java, oneStream, fromFields) == values.size(), name + ": java decoded the wrong count");
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+
+        double codecEnc = BenchmarkTimer.nsPerOp(OBJECTS,
+                () -> oneStream ? codecStream(values, encoder).length : codecRecords(values, encoder).size());
+        double javaEnc = BenchmarkTimer.nsPerOp(OBJECTS,
+                () -> oneStream ? javaStream(values, toFields).length : javaRecords(values, toFields).size());
+        double codecDec = BenchmarkTimer.nsPerOp(OBJECTS, () -> codecDecode(codec, oneStream, decoder));
+        double javaDec = BenchmarkTimer.nsPerOp(OBJECTS, () -> javaDecode(java, oneStream, fromFields));
+        System.out.printf("%-22s %12.1f %12.1f %12.0f %12.0f %12.0f %12.0f%n", name,
+                (double) bytes(codec) / values.size(), (double) bytes(java) / values.size(),
+                codecEnc, javaEnc, codecDec, javaDec);
+    }
+
+    private static <T> List<byte[]> codecRecords(List<T> values, Encoder<T> encoder) {
+        List<byte[]> out = new ArrayList<>(values.size());
+        for (T v : values) {
+            BinaryWriter w = new BinaryWriter(128, false);
+            encoder.write(w, v);
+            out.add(w.toByteArray());
+        }
+        return out;
+    }
+
+    private static <T> byte[] codecStream(List<T> values, Encoder<T> encoder) {
+        BinaryWriter w = new BinaryWriter(1 << 20, true);
+        for (T v : values) encoder.write(w, v);
+        return w.toByteArray();
+    }
+
+    private static <T> int codecDecode(List<byte[]> data, boolean oneStream, Decoder<T> decoder) {
+        int n = 0;
+        if (oneStream) {
+            BinaryReader in = new BinaryReader(ByteBuffer.wrap(data.get(0)), true);
+            for (int i = 0; i < OBJECTS; i++) if (decoder.read(in) != null) n++;
+        } else {
+            for (byte[] record : data) {
+                if (decoder.read(new BinaryReader(ByteBuffer.wrap(record), false)) != null) n++;
+            }
+        }
+        return n;
+    }
+
+    private static <T> List<byte[]> javaRecords(List<T> values, Function<T, Serializable> toFields)
+            throws IOException {
+        List<byte[]> out = new ArrayList<>(values.size());
+        for (T v : values) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+                oos.writeObject(toFields.apply(v));
+            }
+            out.add(bytes.toByteArray());
+        }
+        return out;
+    }
+
+    private static <T> byte[] javaStream(List<T> values, Function<T, Serializable> toFields)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 20);
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            for (T v : values) oos.writeObject(toFields.apply(v));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static <T> int javaDecode(List<byte[]> data, boolean oneStream, Function<Object, T> fromFields)
+            throws IOException, ClassNotFoundException {
+        int n = 0;
+        if (oneStream) {
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data.get(0)))) {
+                for (int i = 0; i < OBJECTS; i++) if (fromFields.apply(in.readObject()) != null) n++;
+            }
+        } else {
+            for (byte[] record : data) {
+                try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(record))) {
+                    if (fromFields.apply(in.readObject()) != null) n++;
+                }
+            }
+        }
+        return n;
+    }
+
+    private static long bytes(List<byte[]> data) {
+        long total = 0;
+        for (byte[] b : data) total += b.length;
+        return total;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
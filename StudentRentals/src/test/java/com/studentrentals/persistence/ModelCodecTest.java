@@ -0,0 +1,266 @@
+package com.studentrentals.persistence;
+
+import com.studentrentals.model.booking.Booking;
+import com.studentrentals.model.booking.BookingStatus;
+import com.studentrentals.model.property.Property;
+import com.studentrentals.model.property.Room;
+import com.studentrentals.model.property.RoomType;
+import com.studentrentals.model.user.Homeowner;
+import com.studentrentals.model.user.Student;
+import com.studentrentals.model.user.User;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+// Round trips through BinaryWriter/BinaryReader and ModelCodec, with and without the symbol dictionary,
+// plus truncated and corrupt input (which must fail with a RuntimeException, never decode garbage).
+// Run with: java com.studentrentals.persistence.ModelCodecTest (exits non-zero on failure)
+public class ModelCodecTest {
+
+    public static void main(String[] args) {
+        varIntBoundaries();
+        strings();
+        symbolDictionary();
+        for (boolean dictionary : new boolean[] {false, true}) {
+            usersRoundTrip(dictionary);
+            propertyRoundTrip(dictionary);
+            roomsRoundTrip(dictionary);
+            bookingsRoundTrip(dictionary);
+        }
+        truncatedInput();
+        corruptInput();
+        System.out.println("ModelCodecTest passed");
+    }
+
+    private static void varIntBoundaries() {
+        int[] values = {0, 1, 127, 128, 16383, 16384, 2097151, 2097152, 268435455, 268435456, Integer.MAX_VALUE};
+        int[] sizes = {1, 1, 1, 2, 2, 3, 3, 4, 4, 5, 5};
+        for (int i = 0; i < values.length; i++) {
+            BinaryWriter out = new BinaryWriter(16, false).putVarInt(values[i]);
+            check(out.size() == sizes[i], "varint " + values[i] + " took " + out.size() + " bytes");
+            BinaryReader in = reader(out, false);
+            check(in.getVarInt() == values[i], "varint " + values[i] + " did not round-trip");
+            check(!in.hasRemaining(), "varint " + values[i] + " left bytes behind");
+        }
+        expect(IllegalArgumentException.class, () -> new BinaryWriter(16, false).putVarInt(-1), "negative varint");
+    }
+
+    private static void strings() {
+        String longText = "x".repeat(1000) + "é";
+        String[] values = {"", "a", "Café – 東京 🏠", longText, ""};
+        BinaryWriter out = new BinaryWriter(16, false);
+        for (String s : values) out.putString(s);
+        BinaryReader in = reader(out, false);
+        for (String s : values) check(in.getString().equals(s), "string did not round-trip: " + s);
+        check(!in.hasRemaining(), "strings left bytes behind");
+
+        expect(IllegalArgumentException.class, () -> new BinaryWriter(16, false).putString(null), "null string");
+        expect(IllegalArgumentException.class, () -> new BinaryWriter(16, true).putSymbol(null), "null symbol");
+    }
+
+    private static void symbolDictionary() {
+        BinaryWriter out = new BinaryWriter(16, true);
+        out.putSymbol("Cardiff");
+        int first = out.size();
+        out.putSymbol("Cardiff");
+        check(out.size() - first == 1, "repeated symbol should be a one-byte reference");
+        out.putSymbol("");
+        out.putSymbol("Bristol");
+        out.putSymbol("");
+        out.putSymbol("Cardiff");
+
+        BinaryReader in = reader(out, true);
+        for (String expected : new String[] {"Cardiff", "Cardiff", "", "Bristol", "", "Cardiff"}) {
+            check(in.getSymbol().equals(expected), "symbol did not round-trip: " + expected);
+        }
+        check(!in.hasRemaining(), "symbols left bytes behind");
+
+        BinaryWriter plain = new BinaryWriter(16, false);
+        plain.putSymbol("Cardiff").putSymbol("Cardiff");
+        check(plain.size() == 2 * (1 + 1 + "Cardiff".length()), "without a dictionary every symbol is a literal");
+
+        // dictionary-encoded data read without a dictionary hits a reference it cannot resolve
+        BinaryReader wrongMode = reader(out, false);
+        wrongMode.getSymbol();
+        expect(IllegalStateException.class, wrongMode::getSymbol, "symbol reference without dictionary");
+    }
+
+    private static void usersRoundTrip(boolean dictionary) {
+        Student student = new Student("stu-1", "Ann", "ann@x.com", "hash", "Cardiff Uni", "S1");
+        Student sameUni = new Student("stu-2", "", "bob@x.com", "", "Cardiff Uni", "");
+        Homeowner owner = new Homeowner("own-1", "Ola", "ola@x.com", "hash2", "0123");
+        BinaryWriter out = new BinaryWriter(16, dictionary);
+        for (User u : List.of(student, sameUni, owner)) ModelCodec.writeUser(out, u);
+
+        BinaryReader in = reader(out, dictionary);
+        for (User expected : List.of(student, sameUni, owner)) {
+            User actual = ModelCodec.readUser(in);
+            check(actual.getClass() == expected.getClass(), "user role lost");
+            check(actual.getUserId().equals(expected.getUserId())
+                    && actual.getName().equals(expected.getName())
+                    && actual.getEmail().equals(expected.getEmail())
+                    && actual.getPasswordHash().equals(expected.getPasswordHash()), "user fields lost");
+            if (expected instanceof Student s) {
+                Student a = (Student) actual;
+                check(a.getUniversity().equals(s.getUniversity()) && a.getStudentId().equals(s.getStudentId()),
+                        "student fields lost");
+            } else {
+                check(((Homeowner) actual).getContactNumber().equals(((Homeowner) expected).getContactNumber()),
+                        "homeowner fields lost");
+            }
+        }
+        check(!in.hasRemaining(), "users left bytes behind");
+    }
+
+    private static void propertyRoundTrip(boolean dictionary) {
+        Property expected = new Property("prop-1", "own-1", "1 High St", "Cardiff", "");
+        BinaryWriter out = new BinaryWriter(16, dictionary);
+        ModelCodec.writeProperty(out, expected);
+        ModelCodec.writeProperty(out, expected);
+
+        BinaryReader in = reader(out, dictionary);
+        for (int i = 0; i < 2; i++) {
+            Property actual = ModelCodec.readProperty(in);
+            check(actual.getPropertyId().equals("prop-1") && actual.getOwnerId().equals("own-1")
+                    && actual.getAddress().equals("1 High St") && actual.getCity().equals("Cardiff")
+                    && actual.getDescription().isEmpty(), "property fields lost");
+        }
+        check(!in.hasRemaining(), "properties left bytes behind");
+    }
+
+    private static void roomsRoundTrip(boolean dictionary) {
+        List<Room> rooms = List.of(
+                room("room-1", RoomType.SINGLE, List.of("WiFi", "Desk")),
+                room("room-2", RoomType.DOUBLE, List.of()),
+                room("room-3", RoomType.SINGLE, List.of("")),
+                room("room-4", RoomType.DOUBLE, List.of("WiFi", "", "Desk")));
+        BinaryWriter out = new BinaryWriter(16, dictionary);
+        for (Room r : rooms) ModelCodec.writeRoom(out, r);
+
+        BinaryReader in = reader(out, dictionary);
+        for (Room expected : rooms) {
+            Room actual = ModelCodec.readRoom(in);
+            check(actual.getRoomId().equals(expected.getRoomId())
+                    && actual.getPropertyId().equals(expected.getPropertyId())
+                    && actual.getOwnerId().equals(expected.getOwnerId())
+                    && actual.getCity().equals(expected.getCity())
+                    && actual.getType() == expected.getType()
+                    && actual.getMonthlyRent() == expected.getMonthlyRent()
+                    && actual.getAmenities().equals(expected.getAmenities())
+                    && actual.getAvailableFrom().equals(expected.getAvailableFrom())
+                    && actual.getAvailableTo().equals(expected.getAvailableTo()), "room fields lost: " + expected);
+        }
+        check(!in.hasRemaining(), "rooms left bytes behind");
+    }
+
+    private static void bookingsRoundTrip(boolean dictionary) {
+        BinaryWriter out = new BinaryWriter(16, dictionary);
+        for (BookingStatus status : BookingStatus.values()) ModelCodec.writeBooking(out, booking(status));
+
+        BinaryReader in = reader(out, dictionary);
+        for (BookingStatus status : BookingStatus.values()) {
+            Booking expected = booking(status);
+            Booking actual = ModelCodec.readBooking(in);
+            check(actual.getBookingId().equals(expected.getBookingId())
+                    && actual.getRoomId().equals(expected.getRoomId())
+                    && actual.getOwnerId().equals(expected.getOwnerId())
+                    && actual.getStudentId().equals(expected.getStudentId())
+                    && actual.getStartDate().equals(expected.getStartDate())
+                    && actual.getEndDate().equals(expected.getEndDate())
+                    && actual.getStatus() == status
+                    && actual.getRequestedAt().equals(expected.getRequestedAt()), "booking fields lost: " + status);
+        }
+        check(!in.hasRemaining(), "bookings left bytes behind");
+    }
+
+    // Every proper prefix of a record must fail to decode rather than produce an object
+    private static void truncatedInput() {
+        for (boolean dictionary : new boolean[] {false, true}) {
+            BinaryWriter out = new BinaryWriter(16, dictionary);
+            ModelCodec.writeRoom(out, room("room-1", RoomType.DOUBLE, List.of("WiFi", "Desk")));
+            byte[] bytes = out.toByteArray();
+            for (int length = 0; length < bytes.length; length++) {
+                BinaryReader in = new BinaryReader(ByteBuffer.wrap(bytes, 0, length), dictionary);
+                expect(RuntimeException.class, () -> ModelCodec.readRoom(in), "room truncated to " + length + " bytes");
+            }
+
+            BinaryWriter b = new BinaryWriter(16, dictionary);
+            ModelCodec.writeBooking(b, booking(BookingStatus.ACCEPTED));
+            byte[] bookingBytes = b.toByteArray();
+            for (int length = 0; length < bookingBytes.length; length++) {
+                BinaryReader in = new BinaryReader(ByteBuffer.wrap(bookingBytes, 0, length), dictionary);
+                expect(RuntimeException.class, () -> ModelCodec.readBooking(in), "booking truncated to " + length + " bytes");
+            }
+        }
+    }
+
+    private static void corruptInput() {
+        // unknown booking status ordinal (the byte before the 8-byte request time)
+        BinaryWriter out = new BinaryWriter(16, false);
+        ModelCodec.writeBooking(out, booking(BookingStatus.PENDING));
+        byte[] bytes = out.toByteArray();
+        int status = bytes.length - 9;
+        bytes[status] = 99;
+        expect(IllegalStateException.class, () -> ModelCodec.readBooking(new BinaryReader(ByteBuffer.wrap(bytes), false)),
+                "unknown booking status");
+        bytes[status] = -1;
+        expect(IllegalStateException.class, () -> ModelCodec.readBooking(new BinaryReader(ByteBuffer.wrap(bytes), false)),
+                "negative booking status");
+
+        // role byte that is neither student nor homeowner
+        BinaryWriter user = new BinaryWriter(16, false);
+        ModelCodec.writeUser(user, new Homeowner("own-1", "Olive", "olive@example.com", "hash", "0123"));
+        byte[] userBytes = user.toByteArray();
+        userBytes[0] = 7;
+        expect(IllegalStateException.class, () -> ModelCodec.readUser(new BinaryReader(ByteBuffer.wrap(userBytes), false)),
+                "unknown user role");
+
+        // varint that never terminates
+        byte[] endless = {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01};
+        expect(IllegalStateException.class, () -> new BinaryReader(ByteBuffer.wrap(endless), false).getVarInt(),
+                "unterminated varint");
+
+        // string length past the end of the buffer, and a length that decodes negative
+        byte[] tooLong = new BinaryWriter(16, false).putVarInt(50).putByte('a').toByteArray();
+        expect(IllegalStateException.class, () -> new BinaryReader(ByteBuffer.wrap(tooLong), false).getString(),
+                "string longer than the buffer");
+        byte[] negative = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F, 'a'};
+        expect(IllegalStateException.class, () -> new BinaryReader(ByteBuffer.wrap(negative), false).getString(),
+                "negative string length");
+
+        // symbol reference past the dictionary
+        byte[] badRef = new BinaryWriter(16, false).putVarInt(3).toByteArray();
+        expect(IllegalStateException.class, () -> new BinaryReader(ByteBuffer.wrap(badRef), true).getSymbol(),
+                "symbol reference past the dictionary");
+    }
+
+    private static Room room(String id, RoomType type, List<String> amenities) {
+        return new Room(id, "prop-1", "own-1", "Cardiff", type, 512.5, amenities,
+                LocalDate.of(2026, 9, 1), LocalDate.of(2027, 6, 30));
+    }
+
+    private static Booking booking(BookingStatus status) {
+        return new Booking("book-" + status, "room-1", "own-1", "stu-1",
+                LocalDate.of(2026, 10, 1), LocalDate.of(2026, 11, 1), status, Instant.ofEpochMilli(1_790_000_000_123L));
+    }
+
+    private static BinaryReader reader(BinaryWriter out, boolean dictionary) {
+        return new BinaryReader(ByteBuffer.wrap(out.toByteArray()), dictionary);
+    }
+
+    private static void expect(Class<? extends Throwable> type, Runnable action, String what) {
+        try {
+            action.run();
+        } catch (Throwable t) {
+            if (type.isInstance(t)) return;
+            throw new AssertionError(what + ": expected " + type.getSimpleName() + " but got " + t, t);
+        }
+        throw new AssertionError(what + ": expected " + type.getSimpleName());
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
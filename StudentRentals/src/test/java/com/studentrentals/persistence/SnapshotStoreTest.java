@@ -0,0 +1,303 @@
+package com.studentrentals.persistence;
+
+import com.studentrentals.model.booking.Booking;
+import com.studentrentals.model.booking.BookingStatus;
+import com.studentrentals.model.property.Property;
+import com.studentrentals.model.property.Room;
+import com.studentrentals.model.property.RoomType;
+import com.studentrentals.model.user.Homeowner;
+import com.studentrentals.model.user.Student;
+import com.studentrentals.model.user.User;
+import com.studentrentals.repository.*;
+import com.studentrentals.service.AuthService;
+import com.studentrentals.service.BookingService;
+import com.studentrentals.service.PropertyService;
+import com.studentrentals.service.SearchCriteria;
+import com.studentrentals.service.SearchService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Startup path end to end: state built through the services is snapshotted, more changes go to the
+// journal only, then fresh repositories load the snapshot (memory-mapped) and replay just the tail.
+// Entities, calendars, booking and city indexes and search results must all match the live state.
+// A second run times snapshot write, load and tail replay at a realistic size (rooms and bookings as
+// args, default 100000 and 200000).
+// Run with: java com.studentrentals.persistence.SnapshotStoreTest [rooms bookings] (exits non-zero on failure)
+public class SnapshotStoreTest {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 9, 1);
+    private static final LocalDate TO = LocalDate.of(2027, 8, 31);
+    private static final String[] CITIES = {"Cardiff", "Leeds", "Bristol"};
+
+    private static final class Repositories {
+        final InMemoryUserRepository users = new InMemoryUserRepository();
+        final InMemoryPropertyRepository properties = new InMemoryPropertyRepository();
+        final InMemoryRoomRepository rooms = new InMemoryRoomRepository();
+        final InMemoryBookingRepository bookings = new InMemoryBookingRepository();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rooms = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int bookings = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        Path dir = Files.createTempDirectory("snapshot-test");
+        try {
+            snapshotPlusTail(dir);
+            clean(dir);
+            timing(dir, rooms, bookings);
+        } finally {
+            clean(dir);
+            Files.deleteIfExists(dir);
+        }
+        System.out.println("SnapshotStoreTest passed");
+    }
+
+    private static void snapshotPlusTail(Path dir) throws IOException {
+        Repositories live = new Repositories();
+        SnapshotStore snapshots = new SnapshotStore(dir.resolve("test.snapshot"));
+        long snapshotPosition;
+        try (Journal journal = Journal.open(dir.resolve("test.wal"))) {
+            journal.replay(0, (type, payload) -> { });
+            MutationLog log = new JournalMutationLog(journal);
+            AuthService auth = new AuthService(live.users, log);
+            PropertyService properties = new PropertyService(live.properties, live.rooms, log);
+            BookingService bookings = new BookingService(live.rooms, live.bookings, null, log);
+
+            // Before the snapshot: two owners, a few properties with rooms, bookings in every status
+            Homeowner ann = auth.registerHomeowner("Ann", "ann@example.com", "pw", "0123");
+            Homeowner ben = auth.registerHomeowner("Ben", "ben@example.com", "pw", "0456");
+            List<Student> students = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                students.add(auth.registerStudent("Stu " + i, "stu" + i + "@example.com", "pw", "Uni " + i % 2, "S" + i));
+            }
+            List<Room> rooms = new ArrayList<>();
+            for (int p = 0; p < 6; p++) {
+                Homeowner owner = p % 2 == 0 ? ann : ben;
+                Property property = properties.createProperty(owner.getUserId(), p + " High St", CITIES[p % 3], "near campus");
+                for (int r = 0; r < 3; r++) {
+                    rooms.add(properties.addRoomToProperty(owner.getUserId(), property.getPropertyId(),
+                            r % 2 == 0 ? RoomType.SINGLE : RoomType.DOUBLE, 400 + 25 * r + p, List.of("WiFi"), FROM, TO));
+                }
+            }
+            List<Booking> pendingAtSnapshot = new ArrayList<>();
+            for (int i = 0; i < rooms.size(); i++) {
+                Room room = rooms.get(i);
+                Booking b = bookings.requestBooking(students.get(i % 4).getUserId(), room.getRoomId(),
+                        FROM.plusDays(10), FROM.plusDays(40));
+                switch (i % 3) {
+                    case 0 -> bookings.respondToRequest(room.getOwnerId(), b.getBookingId(), BookingStatus.ACCEPTED);
+                    case 1 -> bookings.respondToRequest(room.getOwnerId(), b.getBookingId(), BookingStatus.REJECTED);
+                    default -> pendingAtSnapshot.add(b);
+                }
+            }
+
+            snapshotPosition = journal.position();
+            snapshots.write(snapshotPosition, live.users, live.properties, live.rooms, live.bookings);
+
+            // After the snapshot, journal only: a new user, a new room, an updated and a deleted room,
+            // decisions on snapshot-era requests, a new accepted booking and a removed property
+            Student late = auth.registerStudent("Late", "late@example.com", "pw", "Uni 0", "S9");
+            Property first = live.properties.findByOwnerId(ann.getUserId()).get(0);
+            Room added = properties.addRoomToProperty(ann.getUserId(), first.getPropertyId(), RoomType.DOUBLE, 610,
+                    List.of("Ensuite", "Desk"), FROM, TO);
+            Room updated = rooms.get(1);
+            properties.updateRoom(updated.getOwnerId(), updated.getPropertyId(), updated.getRoomId(), RoomType.DOUBLE,
+                    777.0, List.of("Parking"), null, TO.plusMonths(2));
+            Room removed = rooms.get(4);
+            properties.removeRoom(removed.getOwnerId(), removed.getPropertyId(), removed.getRoomId());
+            bookings.respondToRequest(pendingAtSnapshot.get(0).getOwnerId(), pendingAtSnapshot.get(0).getBookingId(),
+                    BookingStatus.ACCEPTED);
+            bookings.respondToRequest(pendingAtSnapshot.get(1).getOwnerId(), pendingAtSnapshot.get(1).getBookingId(),
+                    BookingStatus.REJECTED);
+            Booking fresh = bookings.requestBooking(late.getUserId(), added.getRoomId(), FROM.plusDays(60), FROM.plusDays(90));
+            bookings.respondToRequest(ann.getUserId(), fresh.getBookingId(), BookingStatus.ACCEPTED);
+            Property gone = live.properties.findByOwnerId(ben.getUserId()).get(0);
+            properties.removeProperty(ben.getUserId(), gone.getPropertyId());
+        }
+        int tailRecords = 9; // one per change after the snapshot
+
+        Repositories loaded = new Repositories();
+        long from = snapshots.load(loaded.users, loaded.properties, loaded.rooms, loaded.bookings);
+        check(from == snapshotPosition, "snapshot recorded position " + from + ", expected " + snapshotPosition);
+        AtomicInteger replayed = new AtomicInteger();
+        try (Journal journal = Journal.open(dir.resolve("test.wal"))) {
+            JournalReplayer replayer = new JournalReplayer(loaded.users, loaded.properties, loaded.rooms, loaded.bookings);
+            journal.replay(from, (type, payload) -> replayed.incrementAndGet());
+            replayer.replay(journal, from);
+        }
+        check(replayed.get() == tailRecords, "expected " + tailRecords + " tail records, replayed " + replayed.get());
+        checkSameState(live, loaded);
+    }
+
+    private static void checkSameState(Repositories expected, Repositories actual) {
+        check(userKeys(expected.users).equals(userKeys(actual.users)), "users differ");
+        check(propertyKeys(expected.properties).equals(propertyKeys(actual.properties)), "properties differ");
+        check(roomKeys(expected.rooms).equals(roomKeys(actual.rooms)), "rooms differ");
+        check(bookingKeys(expected.bookings).equals(bookingKeys(actual.bookings)), "bookings differ");
+
+        for (String city : CITIES) {
+            check(new TreeSet<>(expected.rooms.findIdsByCity(city)).equals(new TreeSet<>(actual.rooms.findIdsByCity(city))),
+                    "city index differs for " + city);
+        }
+        for (Room room : expected.rooms.findAll()) {
+            double expectedRate = expected.rooms.findCalendar(room.getRoomId()).orElseThrow().occupancyRate();
+            double actualRate = actual.rooms.findCalendar(room.getRoomId()).orElseThrow().occupancyRate();
+            check(expectedRate == actualRate, "calendar differs for " + room.getRoomId());
+            for (BookingStatus status : BookingStatus.values()) {
+                check(ids(expected.bookings.findByRoomAndStatus(room.getRoomId(), status))
+                                .equals(ids(actual.bookings.findByRoomAndStatus(room.getRoomId(), status))),
+                        "booking index differs for " + room.getRoomId() + " " + status);
+            }
+        }
+        for (User user : expected.users.findAll()) {
+            check(ids(expected.bookings.findByStudent(user.getUserId())).equals(ids(actual.bookings.findByStudent(user.getUserId())))
+                            && ids(expected.bookings.findByOwner(user.getUserId())).equals(ids(actual.bookings.findByOwner(user.getUserId()))),
+                    "booking index differs for user " + user.getUserId());
+        }
+
+        SearchService expectedSearch = new SearchService(expected.rooms, expected.properties, 0);
+        SearchService actualSearch = new SearchService(actual.rooms, actual.properties, 0);
+        for (String city : CITIES) {
+            for (SearchCriteria criteria : List.of(
+                    new SearchCriteria(city, null, null, null, null, null),
+                    new SearchCriteria(city, 400.0, 700.0, FROM.plusDays(20), FROM.plusDays(30), null),
+                    new SearchCriteria(city, null, null, FROM.plusDays(100), FROM.plusDays(120), RoomType.DOUBLE))) {
+                check(roomIds(expectedSearch.search(criteria)).equals(roomIds(actualSearch.search(criteria))),
+                        "search differs in " + city);
+            }
+        }
+    }
+
+    // Snapshot and tail timings at a realistic size. Bulk state goes straight into the repositories (the
+    // snapshot doesn't care how it got there); the tail goes through the services and journal.
+    private static void timing(Path dir, int roomCount, int bookingCount) throws IOException {
+        Repositories live = new Repositories();
+        Random random = new Random(3);
+        int owners = Math.max(1, roomCount / 20);
+        for (int o = 0; o < owners; o++) {
+            live.users.save(new Homeowner("own-" + o, "Owner " + o, "own" + o + "@example.com", "hash", "0123"));
+        }
+        for (int s = 0; s < bookingCount / 4; s++) {
+            live.users.save(new Student("stu-" + s, "Student " + s, "stu" + s + "@example.com", "hash", "Uni " + s % 7, "S" + s));
+        }
+        for (int r = 0; r < roomCount; r++) {
+            String propertyId = "prop-" + r / 4;
+            String city = CITIES[(r / 4) % CITIES.length];
+            if (r % 4 == 0) {
+                live.properties.save(new Property(propertyId, "own-" + r / 80, r / 4 + " High St", city, "near campus"));
+            }
+            live.properties.findById(propertyId).orElseThrow().addRoom("room-" + r);
+            live.rooms.save(city, new Room("room-" + r, propertyId, "own-" + r / 80, city, RoomType.SINGLE,
+                    350 + random.nextInt(500), List.of("WiFi", "Desk"), FROM, TO));
+        }
+        for (int b = 0; b < bookingCount; b++) {
+            int r = random.nextInt(roomCount);
+            LocalDate start = FROM.plusDays(random.nextInt(300));
+            boolean accept = b % 3 == 0 && live.rooms.isRoomFree("room-" + r, start, start.plusDays(30));
+            Booking booking = new Booking("book-" + b, "room-" + r, "own-" + r / 80, "stu-" + b % (bookingCount / 4),
+                    start, start.plusDays(30), accept ? BookingStatus.ACCEPTED : BookingStatus.PENDING,
+                    Instant.ofEpochMilli(1_790_000_000_000L + b));
+            live.bookings.save(booking);
+            if (accept) live.rooms.markBooked(booking.getRoomId(), start, start.plusDays(30));
+        }
+
+        SnapshotStore snapshots = new SnapshotStore(dir.resolve("timing.snapshot"));
+        int tail = 2_000;
+        long writeNs;
+        long position;
+        try (Journal journal = Journal.open(dir.resolve("timing.wal"))) {
+            journal.replay(0, (type, payload) -> { });
+            position = journal.position();
+            long t0 = System.nanoTime();
+            snapshots.write(position, live.users, live.properties, live.rooms, live.bookings);
+            writeNs = System.nanoTime() - t0;
+
+            // one room each, after every bulk booking has ended, so none of them clash
+            BookingService bookings = new BookingService(live.rooms, live.bookings, null, new JournalMutationLog(journal));
+            for (int i = 0; i < tail; i++) {
+                Booking b = bookings.requestBooking("stu-" + i, "room-" + i * (roomCount / tail),
+                        TO.minusDays(20), TO.minusDays(18));
+                if (i % 2 == 0) bookings.respondToRequest(b.getOwnerId(), b.getBookingId(), BookingStatus.ACCEPTED);
+            }
+        }
+
+        Repositories loaded = new Repositories();
+        long t0 = System.nanoTime();
+        long from = snapshots.load(loaded.users, loaded.properties, loaded.rooms, loaded.bookings);
+        long loadNs = System.nanoTime() - t0;
+        long replayNs;
+        try (Journal journal = Journal.open(dir.resolve("timing.wal"))) {
+            t0 = System.nanoTime();
+            new JournalReplayer(loaded.users, loaded.properties, loaded.rooms, loaded.bookings).replay(journal, from);
+            replayNs = System.nanoTime() - t0;
+        }
+        check(from == position, "timing snapshot recorded the wrong position");
+        check(loaded.rooms.findAllIds().size() == roomCount, "timing: room count differs");
+        check(loaded.bookings.count() == live.bookings.count(), "timing: booking count differs");
+        check(bookingKeys(live.bookings).equals(bookingKeys(loaded.bookings)), "timing: bookings differ");
+
+        System.out.printf("%d rooms, %d bookings: snapshot %.1f MB written in %d ms, loaded in %d ms; "
+                        + "%d-booking tail replayed in %d ms%n",
+                roomCount, live.bookings.count() - tail, Files.size(dir.resolve("timing.snapshot")) / 1e6,
+                writeNs / 1_000_000, loadNs / 1_000_000, tail, replayNs / 1_000_000);
+    }
+
+    private static Set<String> userKeys(UserRepository users) {
+        Set<String> keys = new TreeSet<>();
+        for (User u : users.findAll()) {
+            String extra = u instanceof Student s ? s.getUniversity() + "|" + s.getStudentId()
+                    : ((Homeowner) u).getContactNumber();
+            keys.add(u.getRole() + "|" + u.getUserId() + "|" + u.getName() + "|" + u.getEmail() + "|"
+                    + u.getPasswordHash() + "|" + extra);
+        }
+        return keys;
+    }
+
+    private static Set<String> propertyKeys(PropertyRepository properties) {
+        Set<String> keys = new TreeSet<>();
+        for (Property p : properties.findAll()) {
+            keys.add(p.getPropertyId() + "|" + p.getOwnerId() + "|" + p.getAddress() + "|" + p.getCity() + "|"
+                    + p.getDescription() + "|" + new TreeSet<>(p.getRoomIds()));
+        }
+        return keys;
+    }
+
+    private static Set<String> roomKeys(RoomRepository rooms) {
+        Set<String> keys = new TreeSet<>();
+        for (Room r : rooms.findAll()) keys.add(r + "|" + r.getOwnerId());
+        return keys;
+    }
+
+    private static Set<String> bookingKeys(BookingRepository bookings) {
+        Set<String> keys = new TreeSet<>();
+        bookings.forEach(b -> keys.add(b + "|" + b.getOwnerId() + "|" + b.getRequestedAt()));
+        return keys;
+    }
+
+    private static Set<String> ids(List<Booking> bookings) {
+        Set<String> ids = new TreeSet<>();
+        for (Booking b : bookings) ids.add(b.getBookingId());
+        return ids;
+    }
+
+    private static Set<String> roomIds(List<Room> rooms) {
+        Set<String> ids = new TreeSet<>();
+        for (Room r : rooms) ids.add(r.getRoomId());
+        return ids;
+    }
+
+    private static void clean(Path dir) throws IOException {
+        try (var files = Files.list(dir)) {
+            for (Path p : files.toList()) Files.delete(p);
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
@@ -0,0 +1,68 @@
+package com.studentrentals.repository;
+
+import com.studentrentals.model.booking.Booking;
+import com.studentrentals.model.booking.BookingStatus;
+import com.studentrentals.util.BenchmarkTimer;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+// Double-booking check: hasAcceptedOverlap (per-room interval tree) against the linear path it replaced
+// (findByRoomAndStatus(ACCEPTED) then Booking.overlaps over the list), for rooms with growing histories.
+// Run with: java com.studentrentals.repository.AcceptedOverlapBenchmark
+public class AcceptedOverlapBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2000, 1, 1);
+    private static final int QUERIES = 1024;
+
+    public static void main(String[] args) {
+        System.out.printf("%10s %14s %14s %9s%n", "bookings", "linear ns/op", "tree ns/op", "speed-up");
+        for (int history : new int[] {10, 100, 1_000, 10_000}) run(history);
+    }
+
+    private static void run(int history) {
+        InMemoryBookingRepository repository = new InMemoryBookingRepository();
+        // one busy room plus neighbours, 7-night stays one day apart, some requests left pending/rejected
+        for (String roomId : new String[] {"room-0", "room-1", "room-2"}) {
+            for (int i = 0; i < history; i++) {
+                LocalDate start = FIRST_DAY.plusDays(i * 8L);
+                BookingStatus status = i % 10 == 0 ? BookingStatus.REJECTED : BookingStatus.ACCEPTED;
+                repository.save(new Booking(roomId + "-b" + i, roomId, "own-1", "stu-" + i, start, start.plusDays(6), status));
+            }
+        }
+
+        Random random = new Random(7);
+        LocalDate[] starts = new LocalDate[QUERIES];
+        LocalDate[] ends = new LocalDate[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            starts[i] = FIRST_DAY.plusDays(random.nextInt(history * 8 + 30));
+            ends[i] = starts[i].plusDays(random.nextInt(3));
+        }
+
+        for (int i = 0; i < QUERIES; i++) {
+            if (linear(repository, starts[i], ends[i]) != repository.hasAcceptedOverlap("room-0", starts[i], ends[i])) {
+                throw new AssertionError("linear and tree checks disagree at " + starts[i]);
+            }
+        }
+
+        double linearNs = BenchmarkTimer.nsPerOp(QUERIES, () -> {
+            int hits = 0;
+            for (int i = 0; i < QUERIES; i++) if (linear(repository, starts[i], ends[i])) hits++;
+            return hits;
+        });
+        double treeNs = BenchmarkTimer.nsPerOp(QUERIES, () -> {
+            int hits = 0;
+            for (int i = 0; i < QUERIES; i++) if (repository.hasAcceptedOverlap("room-0", starts[i], ends[i])) hits++;
+            return hits;
+        });
+        System.out.printf("%10d %14.0f %14.0f %8.1fx%n", history, linearNs, treeNs, linearNs / treeNs);
+    }
+
+    // The pre-tree check from BookingService
+    private static boolean linear(BookingRepository repository, LocalDate start, LocalDate end) {
+        for (Booking b : repository.findByRoomAndStatus("room-0", BookingStatus.ACCEPTED)) {
+            if (b.overlaps(start, end)) return true;
+        }
+        return false;
+    }
+}
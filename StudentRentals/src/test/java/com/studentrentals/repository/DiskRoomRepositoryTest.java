@@ -0,0 +1,79 @@
+package com.studentrentals.repository;
+
+import com.studentrentals.model.property.Room;
+import com.studentrentals.model.property.RoomType;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+// Fills a DiskRoomRepository far past its page cache, then updates, deletes and reads back rooms and
+// checks the city index and calendars kept on-heap alongside the tree.
+// Run with: java com.studentrentals.repository.DiskRoomRepositoryTest (exits non-zero on failure)
+public class DiskRoomRepositoryTest {
+
+    private static final int ROOMS = 50_000;
+    private static final LocalDate FROM = LocalDate.of(2026, 9, 1);
+    private static final LocalDate TO = LocalDate.of(2027, 8, 31);
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("disk-rooms-test");
+        Path path = dir.resolve("rooms.db");
+        try (DiskRoomRepository repository = DiskRoomRepository.open(path, 4096, 32)) {
+            for (int i = 0; i < ROOMS; i++) repository.save(city(i), room(i, 400 + i % 300, TO));
+            check(repository.findAllIds().size() == ROOMS, "expected " + ROOMS + " rooms");
+            check(repository.cacheMisses() > 0, "the rooms never left the page cache");
+
+            for (int i = 0; i < ROOMS; i += 7) {
+                Room room = repository.findById("room-" + i).orElseThrow();
+                room.setMonthlyRent(999);
+                repository.update(city(i), room);
+            }
+            for (int i = 0; i < ROOMS; i += 11) repository.delete(city(i), "room-" + i);
+
+            int expected = 0;
+            int expectedInLeeds = 0;
+            for (int i = 0; i < ROOMS; i++) {
+                Room room = repository.findById("room-" + i).orElse(null);
+                if (i % 11 == 0) {
+                    check(room == null, "deleted room still found: room-" + i);
+                    continue;
+                }
+                expected++;
+                if (i % 2 == 1) expectedInLeeds++;
+                double rent = i % 7 == 0 ? 999 : 400 + i % 300;
+                check(room != null && room.getMonthlyRent() == rent && repository.rentOf("room-" + i) == rent,
+                        "room-" + i + " came back as " + room);
+                check(room.getAmenities().equals(List.of("WiFi", "Desk")), "amenities lost on room-" + i);
+            }
+            check(repository.findAll().size() == expected, "findAll disagrees with findById");
+
+            int inLeeds = repository.findIdsByCity("leeds").size();
+            check(inLeeds == expectedInLeeds, "expected " + expectedInLeeds + " rooms in Leeds, found " + inLeeds);
+
+            repository.markBooked("room-1", FROM.plusDays(10), FROM.plusDays(20));
+            check(!repository.isRoomFree("room-1", FROM.plusDays(15), FROM.plusDays(16)), "booking not marked");
+            repository.update(city(1), room(1, 400, TO.minusMonths(1)));
+            check(repository.availableToDayOf("room-1") == (int) TO.minusMonths(1).toEpochDay(), "window not stored");
+            check(!repository.isRoomFree("room-1", FROM.plusDays(15), FROM.plusDays(16)), "booking lost on resize");
+        } finally {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(dir);
+        }
+        System.out.println("DiskRoomRepositoryTest passed");
+    }
+
+    private static String city(int i) {
+        return i % 2 == 0 ? "Cardiff" : "Leeds";
+    }
+
+    private static Room room(int i, double rent, LocalDate to) {
+        return new Room("room-" + i, "prop-" + i / 4, "own-" + i / 40, city(i), RoomType.SINGLE, rent,
+                List.of("WiFi", "Desk"), FROM, to);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
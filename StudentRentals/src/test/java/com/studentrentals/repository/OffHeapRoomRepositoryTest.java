@@ -0,0 +1,67 @@
+package com.studentrentals.repository;
+
+import com.studentrentals.model.property.Room;
+import com.studentrentals.model.property.RoomType;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Run with: java com.studentrentals.repository.OffHeapRoomRepositoryTest (exits non-zero on failure)
+public class OffHeapRoomRepositoryTest {
+
+    public static void main(String[] args) {
+        amenitiesRoundTrip();
+        dictionaryShrinksWithChurn();
+        System.out.println("OffHeapRoomRepositoryTest passed");
+    }
+
+    private static void amenitiesRoundTrip() {
+        OffHeapRoomRepository repository = new OffHeapRoomRepository(16);
+        List<List<String>> cases = List.of(
+                List.of(),
+                List.of(""),
+                List.of("", ""),
+                List.of("WiFi", "Desk"),
+                List.of("3:x", ":", "12"),
+                List.of("Bills\u001Fincluded", "Café"));
+        for (int i = 0; i < cases.size(); i++) repository.save("Cardiff", room("room-" + i, "prop-1", cases.get(i)));
+        for (int i = 0; i < cases.size(); i++) {
+            List<String> actual = repository.findById("room-" + i).orElseThrow().getAmenities();
+            check(actual.equals(cases.get(i)), "amenities " + cases.get(i) + " came back as " + actual);
+        }
+    }
+
+    // Saving, updating and deleting rooms with ever-new ids, properties and amenities must not
+    // grow the dictionary past what the live rooms use
+    private static void dictionaryShrinksWithChurn() {
+        OffHeapRoomRepository repository = new OffHeapRoomRepository(16);
+        for (int i = 0; i < 10; i++) repository.save("Cardiff", room("keep-" + i, "prop-keep", List.of("WiFi")));
+        int baseline = repository.dictionarySize();
+
+        for (int i = 0; i < 5000; i++) {
+            String id = "churn-" + i;
+            repository.save("Cardiff", room(id, "prop-" + i, List.of("Amenity " + i)));
+            repository.update("Cardiff", room(id, "prop-" + i, List.of("Other " + i)));
+            repository.delete("Cardiff", id);
+        }
+        check(repository.dictionarySize() <= baseline + 5,
+                "dictionary grew from " + baseline + " to " + repository.dictionarySize());
+
+        for (int i = 0; i < 10; i++) {
+            Room room = repository.findById("keep-" + i).orElseThrow();
+            check(room.getPropertyId().equals("prop-keep") && room.getCity().equals("Cardiff")
+                    && room.getAmenities().equals(List.of("WiFi")), "surviving room changed: " + room);
+        }
+        check(repository.findById("churn-0").isEmpty(), "deleted room still found");
+        check(repository.findAllIds().size() == 10, "expected 10 rooms, found " + repository.findAllIds().size());
+    }
+
+    private static Room room(String id, String propertyId, List<String> amenities) {
+        return new Room(id, propertyId, "own-1", "Cardiff", RoomType.SINGLE, 450, amenities,
+                LocalDate.of(2026, 9, 1), LocalDate.of(2027, 6, 30));
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
@@ -0,0 +1,80 @@
+package com.studentrentals.service;
+
+import com.studentrentals.model.booking.Booking;
+import com.studentrentals.model.booking.BookingStatus;
+import com.studentrentals.model.property.Room;
+import com.studentrentals.model.property.RoomType;
+import com.studentrentals.repository.InMemoryBookingRepository;
+import com.studentrentals.repository.InMemoryRoomRepository;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// respondToRequests outcomes: every decided booking must be reported as accepted, rejected, auto-rejected
+// or failed, including accepts that clash with a booking accepted before the batch.
+// Run with: java com.studentrentals.service.BookingServiceBatchTest (exits non-zero on failure)
+public class BookingServiceBatchTest {
+
+    private static final String OWNER = "owner-1";
+    private static final String CITY = "Cardiff";
+    private static final LocalDate FROM = LocalDate.of(2026, 9, 1);
+    private static final LocalDate TO = LocalDate.of(2027, 8, 31);
+
+    public static void main(String[] args) {
+        olderAcceptanceConflict();
+        inBatchConflict();
+        System.out.println("BookingServiceBatchTest passed");
+    }
+
+    // A batch accept overlapping a booking ACCEPTED earlier is a failure and stays PENDING
+    private static void olderAcceptanceConflict() {
+        InMemoryRoomRepository rooms = new InMemoryRoomRepository();
+        BookingService service = new BookingService(rooms, new InMemoryBookingRepository());
+        rooms.save(CITY, room("room-1"));
+
+        Booking older = service.requestBooking("stu-1", "room-1", FROM.plusDays(10), FROM.plusDays(20));
+        Booking clash = service.requestBooking("stu-2", "room-1", FROM.plusDays(15), FROM.plusDays(25));
+        Booking later = service.requestBooking("stu-3", "room-1", FROM.plusDays(40), FROM.plusDays(50));
+        service.respondToRequest(OWNER, older.getBookingId(), BookingStatus.ACCEPTED);
+
+        Map<String, BookingStatus> decisions = new LinkedHashMap<>();
+        decisions.put(clash.getBookingId(), BookingStatus.ACCEPTED);
+        decisions.put(later.getBookingId(), BookingStatus.ACCEPTED);
+        BatchDecisionResult result = service.respondToRequests(OWNER, decisions);
+
+        check(result.getFailures().containsKey(clash.getBookingId()), "clashing accept not reported: " + result.getFailures());
+        check(clash.getStatus() == BookingStatus.PENDING, "clashing accept changed to " + clash.getStatus());
+        check(result.getAccepted().equals(List.of(later)), "expected only the later booking accepted");
+        check(result.getAutoRejected().isEmpty(), "nothing should be auto-rejected");
+    }
+
+    // Overlapping accepts in one batch: the earliest wins and the other is auto-rejected, not failed
+    private static void inBatchConflict() {
+        InMemoryRoomRepository rooms = new InMemoryRoomRepository();
+        BookingService service = new BookingService(rooms, new InMemoryBookingRepository());
+        rooms.save(CITY, room("room-1"));
+
+        Booking first = service.requestBooking("stu-1", "room-1", FROM.plusDays(10), FROM.plusDays(20));
+        Booking second = service.requestBooking("stu-2", "room-1", FROM.plusDays(15), FROM.plusDays(25));
+
+        Map<String, BookingStatus> decisions = new LinkedHashMap<>();
+        decisions.put(second.getBookingId(), BookingStatus.ACCEPTED);
+        decisions.put(first.getBookingId(), BookingStatus.ACCEPTED);
+        BatchDecisionResult result = service.respondToRequests(OWNER, decisions);
+
+        check(result.getAccepted().equals(List.of(first)), "expected the earlier booking accepted");
+        check(result.getAutoRejected().equals(List.of(second)), "expected the later booking auto-rejected");
+        check(result.getFailures().isEmpty(), "unexpected failures: " + result.getFailures());
+        check(second.getStatus() == BookingStatus.REJECTED, "overlapping accept left " + second.getStatus());
+    }
+
+    private static Room room(String id) {
+        return new Room(id, "prop-1", OWNER, CITY, RoomType.SINGLE, 500, List.of("WiFi"), FROM, TO);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
@@ -0,0 +1,127 @@
+package com.studentrentals.service;
+
+import com.studentrentals.model.booking.Booking;
+import com.studentrentals.model.booking.BookingStatus;
+import com.studentrentals.model.property.Room;
+import com.studentrentals.model.property.RoomType;
+import com.studentrentals.repository.InMemoryBookingRepository;
+import com.studentrentals.repository.InMemoryRoomRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Stress test: many threads request and accept overlapping bookings on a few rooms while another thread
+// keeps adding rooms and moving the existing rooms' windows. No two ACCEPTED bookings of a room may
+// overlap, and every accepted period must be marked in the room's calendar.
+// Run with: java com.studentrentals.service.BookingServiceConcurrencyTest (exits non-zero on failure)
+public class BookingServiceConcurrencyTest {
+
+    private static final String OWNER = "owner-1";
+    private static final String CITY = "Cardiff";
+    private static final int ROOMS = 6;
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS_PER_THREAD = 4000;
+    private static final LocalDate FROM = LocalDate.of(2026, 9, 1);
+    private static final LocalDate TO = LocalDate.of(2027, 8, 31);
+
+    public static void main(String[] args) throws Exception {
+        for (int round = 0; round < 5; round++) run();
+        System.out.println("BookingServiceConcurrencyTest passed");
+    }
+
+    private static void run() throws Exception {
+        InMemoryRoomRepository rooms = new InMemoryRoomRepository();
+        InMemoryBookingRepository bookings = new InMemoryBookingRepository();
+        BookingService service = new BookingService(rooms, bookings);
+        for (int i = 0; i < ROOMS; i++) rooms.save(CITY, room("room-" + i, FROM, TO));
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Throwable> failures = new ArrayList<>();
+
+        // Room writer: new rooms grow the maps, shrinking and re-widening windows resizes calendars
+        Thread writer = new Thread(() -> {
+            int n = 0;
+            try {
+                start.await();
+                while (!done.get()) {
+                    rooms.save(CITY, room("extra-" + n, FROM, TO));
+                    String id = "room-" + (n % ROOMS);
+                    rooms.update(CITY, room(id, FROM, TO.minusMonths(6)));
+                    rooms.update(CITY, room(id, FROM, TO));
+                    n++;
+                }
+            } catch (Throwable t) {
+                synchronized (failures) { failures.add(t); }
+            }
+        });
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        String roomId = "room-" + random.nextInt(ROOMS);
+                        LocalDate from = FROM.plusDays(random.nextInt(330));
+                        LocalDate to = from.plusDays(1 + random.nextInt(20));
+                        try {
+                            Booking booking = service.requestBooking("stu-" + i, roomId, from, to);
+                            service.respondToRequest(OWNER, booking.getBookingId(), BookingStatus.ACCEPTED);
+                            accepted.incrementAndGet();
+                        } catch (IllegalArgumentException expected) {
+                            // overlap, window temporarily shrunk, or lost a race to another acceptance
+                        }
+                    }
+                } catch (Throwable t2) {
+                    synchronized (failures) { failures.add(t2); }
+                }
+            }));
+        }
+
+        writer.start();
+        for (Thread w : workers) w.start();
+        start.countDown();
+        for (Thread w : workers) w.join();
+        done.set(true);
+        writer.join();
+
+        if (!failures.isEmpty()) {
+            AssertionError error = new AssertionError("worker failed");
+            for (Throwable t : failures) error.addSuppressed(t);
+            throw error;
+        }
+        check(accepted.get() > 0, "no booking was ever accepted");
+
+        for (int i = 0; i < ROOMS; i++) {
+            String roomId = "room-" + i;
+            List<Booking> acceptedForRoom = bookings.findByRoomAndStatus(roomId, BookingStatus.ACCEPTED);
+            acceptedForRoom.sort((a, b) -> a.getStartDate().compareTo(b.getStartDate()));
+            for (int j = 1; j < acceptedForRoom.size(); j++) {
+                Booking prev = acceptedForRoom.get(j - 1);
+                Booking next = acceptedForRoom.get(j);
+                check(next.getStartDate().isAfter(prev.getEndDate()),
+                        "double accept on " + roomId + ": " + prev + " and " + next);
+            }
+            for (Booking b : acceptedForRoom) {
+                check(!rooms.isRoomFree(roomId, b.getStartDate(), b.getEndDate()),
+                        "accepted booking not marked in calendar: " + b);
+            }
+        }
+    }
+
+    private static Room room(String id, LocalDate from, LocalDate to) {
+        return new Room(id, "prop-1", OWNER, CITY, RoomType.SINGLE, 500, List.of("WiFi"), from, to);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
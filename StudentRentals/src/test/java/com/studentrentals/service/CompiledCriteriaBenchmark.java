@@ -0,0 +1,127 @@
+package com.studentrentals.service;
+
+import com.studentrentals.model.property.Room;
+import com.studentrentals.model.property.RoomType;
+import com.studentrentals.util.BenchmarkTimer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Per-room cost of the listing filters (rent, type, dates) three ways:
+//   interpreted - the original SearchService checks: null tests and LocalDate compares per room per filter
+//   compiled    - CompiledCriteria bounds, still reading Room objects
+//   columns     - CompiledCriteria bounds over primitive columns, as RoomColumns' scan filters run them
+// Run with: java com.studentrentals.service.CompiledCriteriaBenchmark
+public class CompiledCriteriaBenchmark {
+
+    private static final int ROOMS = 100_000;
+    private static final LocalDate BASE = LocalDate.of(2026, 1, 1);
+
+    private static List<Room> rooms;
+    private static double[] rent;
+    private static int[] type;
+    private static int[] fromDay;
+    private static int[] toDay;
+
+    public static void main(String[] args) {
+        build();
+        System.out.printf("%-24s %18s %15s %15s%n", "criteria", "interpreted ns/rm", "compiled ns/rm", "columns ns/rm");
+        run("none", new SearchCriteria(null, null, null, null, null, null));
+        run("rent", new SearchCriteria(null, 400.0, 650.0, null, null, null));
+        run("dates", new SearchCriteria(null, null, null, BASE.plusDays(200), BASE.plusDays(300), null));
+        run("rent + type + dates", new SearchCriteria(null, 400.0, 650.0, BASE.plusDays(200), BASE.plusDays(300),
+                RoomType.DOUBLE));
+        run("max rent + reversed dates", new SearchCriteria(null, null, 600.0, BASE.plusDays(300), BASE.plusDays(200),
+                null));
+    }
+
+    private static void build() {
+        Random random = new Random(11);
+        RoomType[] types = RoomType.values();
+        rooms = new ArrayList<>(ROOMS);
+        rent = new double[ROOMS];
+        type = new int[ROOMS];
+        fromDay = new int[ROOMS];
+        toDay = new int[ROOMS];
+        for (int i = 0; i < ROOMS; i++) {
+            LocalDate from = BASE.plusDays(random.nextInt(365));
+            LocalDate to = from.plusDays(30 + random.nextInt(400));
+            Room room = new Room("room-" + i, "prop-" + i / 4, "own-1", "Cardiff", types[random.nextInt(types.length)],
+                    300 + random.nextInt(600), List.of(), from, to);
+            rooms.add(room);
+            rent[i] = room.getMonthlyRent();
+            type[i] = room.getType().ordinal();
+            fromDay[i] = (int) from.toEpochDay();
+            toDay[i] = (int) to.toEpochDay();
+        }
+    }
+
+    private static void run(String name, SearchCriteria criteria) {
+        int expected = interpreted(criteria);
+        if (compiled(criteria) != expected || columns(criteria) != expected) {
+            throw new AssertionError(name + ": compiled and interpreted filters disagree");
+        }
+        double interpretedNs = BenchmarkTimer.nsPerOp(ROOMS, () -> interpreted(criteria));
+        double compiledNs = BenchmarkTimer.nsPerOp(ROOMS, () -> compiled(criteria));
+        double columnsNs = BenchmarkTimer.nsPerOp(ROOMS, () -> columns(criteria));
+        System.out.printf("%-24s %18.2f %15.2f %15.2f%n", name, interpretedNs, compiledNs, columnsNs);
+    }
+
+    private static int interpreted(SearchCriteria c) {
+        int n = 0;
+        for (Room room : rooms) {
+            if (!matchesPrice(room, c.getMinPrice(), c.getMaxPrice())) continue;
+            if (!matchesType(room, c.getRoomType())) continue;
+            if (!matchesDate(room, c.getStartDate(), c.getEndDate())) continue;
+            n++;
+        }
+        return n;
+    }
+
+    private static boolean matchesPrice(Room room, Double min, Double max) {
+        double rent = room.getMonthlyRent();
+        if (min != null && rent < min) return false;
+        if (max != null && rent > max) return false;
+        return true;
+    }
+
+    private static boolean matchesType(Room room, RoomType type) {
+        if (type == null) return true;
+        return room.getType() == type;
+    }
+
+    private static boolean matchesDate(Room room, LocalDate start, LocalDate end) {
+        if (start == null || end == null) return true;
+        if (end.isBefore(start)) return false;
+        return !start.isBefore(room.getAvailableFrom()) && !end.isAfter(room.getAvailableTo());
+    }
+
+    // Compiled once per query, as RoomColumns and SubscriptionIndex do
+    private static int compiled(SearchCriteria criteria) {
+        CompiledCriteria c = CompiledCriteria.of(criteria);
+        int n = 0;
+        for (Room room : rooms) {
+            double r = room.getMonthlyRent();
+            int t = room.getType().ordinal();
+            if (r >= c.minRent & r <= c.maxRent & (c.type == CompiledCriteria.ANY_TYPE | c.type == t)
+                    & room.getAvailableFrom().toEpochDay() <= c.startDay & room.getAvailableTo().toEpochDay() >= c.endDay) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    private static int columns(SearchCriteria criteria) {
+        CompiledCriteria c = CompiledCriteria.of(criteria);
+        int n = 0;
+        for (int i = 0; i < ROOMS; i++) {
+            if (rent[i] >= c.minRent & rent[i] <= c.maxRent & (c.type == CompiledCriteria.ANY_TYPE | c.type == type[i])
+                    & fromDay[i] <= c.startDay & toDay[i] >= c.endDay) {
+                n++;
+            }
+        }
+        return n;
+    }
+}
@@ -0,0 +1,62 @@
+package com.studentrentals.service;
+
+import com.studentrentals.model.booking.Booking;
+import com.studentrentals.model.booking.BookingStatus;
+import com.studentrentals.persistence.MutationLog;
+import com.studentrentals.repository.InMemoryBookingRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Bookings already PENDING at start-up (as after a journal replay) expire at request time + timeout,
+// not a full timeout after the restart.
+// Run with: java com.studentrentals.service.PendingExpirySchedulerTest (exits non-zero on failure)
+public class PendingExpirySchedulerTest {
+
+    public static void main(String[] args) throws Exception {
+        InMemoryBookingRepository bookings = new InMemoryBookingRepository();
+        Instant now = Instant.now();
+        Booking overdue = pending("book-overdue", now.minus(Duration.ofHours(2)));
+        Booking dueSoon = pending("book-due-soon", now.minus(Duration.ofHours(1)).plusMillis(300));
+        Booking fresh = pending("book-fresh", now.minus(Duration.ofMinutes(5)));
+        Booking answered = new Booking("book-answered", "room-1", "own-1", "stu-1",
+                LocalDate.of(2026, 10, 1), LocalDate.of(2026, 10, 5), BookingStatus.ACCEPTED, now.minus(Duration.ofHours(3)));
+        for (Booking b : List.of(overdue, dueSoon, fresh, answered)) bookings.save(b);
+
+        List<String> logged = new ArrayList<>();
+        MutationLog log = new MutationLog() {
+            @Override
+            public void bookingStatusChanged(Booking booking) {
+                synchronized (logged) { logged.add(booking.getBookingId()); }
+            }
+        };
+        try (PendingExpiryScheduler scheduler = new PendingExpiryScheduler(bookings, log, Duration.ofHours(1), Duration.ofMillis(20))) {
+            scheduler.start();
+            Thread.sleep(150);
+            check(overdue.getStatus() == BookingStatus.CANCELLED, "overdue request should expire on the first ticks");
+            check(fresh.getStatus() == BookingStatus.PENDING, "request within its timeout should stay pending");
+
+            Thread.sleep(600);
+            check(dueSoon.getStatus() == BookingStatus.CANCELLED, "request should expire at its original deadline");
+            check(fresh.getStatus() == BookingStatus.PENDING, "request within its timeout should stay pending");
+            check(answered.getStatus() == BookingStatus.ACCEPTED, "answered booking must not change");
+        }
+        synchronized (logged) {
+            check(logged.size() == 2 && logged.containsAll(List.of("book-overdue", "book-due-soon")),
+                    "expected two logged expiries, got " + logged);
+        }
+        System.out.println("PendingExpirySchedulerTest passed");
+    }
+
+    private static Booking pending(String id, Instant requestedAt) {
+        return new Booking(id, "room-1", "own-1", "stu-1", LocalDate.of(2026, 10, 1), LocalDate.of(2026, 10, 5),
+                BookingStatus.PENDING, requestedAt);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
@@ -0,0 +1,64 @@
+package com.studentrentals.service;
+
+import com.studentrentals.model.property.Property;
+
+import java.util.Map;
+import java.util.Set;
+
+// Run with: java com.studentrentals.service.PropertyTextIndexTest (exits non-zero on failure)
+public class PropertyTextIndexTest {
+
+    public static void main(String[] args) {
+        PropertyTextIndex index = new PropertyTextIndex();
+        index.propertySaved(new Property("p-quiet", "own-1", "1 Quiet Street", "Cardiff", "Cosy flat near campus"));
+        index.propertySaved(new Property("p-quiet-garden", "own-1", "2 Quiet Street", "Cardiff", "Big garden"));
+        index.propertySaved(new Property("p-garden-flat", "own-1", "3 High Road", "Cardiff", "Garden flat"));
+        index.propertySaved(new Property("p-garden-of-flat", "own-1", "4 High Road", "Cardiff", "The garden of the flat"));
+
+        // words: any one of them matches
+        check(matches(index, "garden"), Set.of("p-quiet-garden", "p-garden-flat", "p-garden-of-flat"), "single word");
+        check(matches(index, "campus garden"), Set.of("p-quiet", "p-quiet-garden", "p-garden-flat", "p-garden-of-flat"),
+                "any word");
+
+        // phrases alone filter; with words, a phrase match also needs a word hit
+        check(matches(index, "\"quiet street\""), Set.of("p-quiet", "p-quiet-garden"), "phrase only");
+        check(matches(index, "garden \"quiet street\""), Set.of("p-quiet-garden"), "phrase plus word");
+        check(matches(index, "pool \"quiet street\""), Set.of(), "phrase plus unmatched word");
+
+        // stop words keep their positions inside phrases
+        check(matches(index, "\"garden of flat\""), Set.of(), "gap in the wrong place");
+        check(matches(index, "\"garden of the flat\""), Set.of("p-garden-of-flat"), "phrase with stop words");
+        check(matches(index, "\"garden flat\""), Set.of("p-garden-flat"), "adjacent phrase");
+
+        // phrases never span the address and description
+        check(matches(index, "\"street big\""), Set.of(), "phrase across fields");
+
+        // a query of nothing but stop words is no filter at all
+        check(index.search("the of and") == null, "stop-word query should mean no keyword filter");
+        check(index.search("\"of the\"") == null, "stop-word phrase should mean no keyword filter");
+        check(index.search("the garden") != null, "stop word plus a word should still filter");
+
+        // every matched term adds to the score
+        Map<String, Double> scores = index.search("garden flat");
+        check(scores.get("p-garden-flat") > scores.get("p-quiet-garden"), "more matched terms should score higher");
+
+        index.propertyRemoved("p-quiet-garden");
+        check(matches(index, "garden \"quiet street\""), Set.of(), "removed property still matches");
+        index.propertySaved(new Property("p-quiet", "own-1", "1 Quiet Street", "Cardiff", "Garden flat"));
+        check(matches(index, "garden \"quiet street\""), Set.of("p-quiet"), "updated property text not indexed");
+
+        System.out.println("PropertyTextIndexTest passed");
+    }
+
+    private static Set<String> matches(PropertyTextIndex index, String query) {
+        return index.search(query).keySet();
+    }
+
+    private static void check(Set<String> actual, Set<String> expected, String message) {
+        if (!actual.equals(expected)) throw new AssertionError(message + ": expected " + expected + " but got " + actual);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
@@ -0,0 +1,76 @@
+package com.studentrentals.storage;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+// Mixes short keys with keys near the entry limit on the smallest page size, so leaf and internal pages
+// split with very uneven entry sizes (separators are whole keys), then checks lookups, ordered scans,
+// removes and a reopen against a TreeMap.
+// Run with: java com.studentrentals.storage.BPlusTreeTest (exits non-zero on failure)
+public class BPlusTreeTest {
+
+    private static final int PAGE_SIZE = 512;
+    private static final int MAX_KEY = PAGE_SIZE / 4 - 4; // put() rejects key + value over pageSize / 4 - 4
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("bptree-test");
+        Path path = dir.resolve("tree.db");
+        try {
+            mixedKeyLengths(path);
+        } finally {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(dir);
+        }
+        System.out.println("BPlusTreeTest passed");
+    }
+
+    private static void mixedKeyLengths(Path path) throws Exception {
+        Random random = new Random(42);
+        TreeMap<String, byte[]> expected = new TreeMap<>();
+        try (BPlusTree tree = BPlusTree.open(path, PAGE_SIZE, 16)) {
+            for (int i = 0; i < 20000; i++) {
+                String key = key(random, i);
+                byte[] value = new byte[random.nextInt(4)];
+                random.nextBytes(value);
+                tree.put(key, value);
+                expected.put(key, value);
+            }
+            List<String> keys = new ArrayList<>(expected.keySet());
+            for (int i = 0; i < keys.size(); i += 3) {
+                check(tree.remove(keys.get(i)), "remove failed: " + keys.get(i));
+                expected.remove(keys.get(i));
+            }
+            verify(tree, expected);
+        }
+        try (BPlusTree tree = BPlusTree.open(path, PAGE_SIZE, 16)) {
+            verify(tree, expected);
+        }
+    }
+
+    // Mostly short keys; every few keys one at (or near) the size limit, sharing a long prefix
+    private static String key(Random random, int i) {
+        String id = Integer.toString(random.nextInt(1_000_000), 36) + "-" + i;
+        if (random.nextInt(5) != 0) return id;
+        String padded = "p".repeat(MAX_KEY) + id;
+        return padded.substring(padded.length() - MAX_KEY + random.nextInt(4) + 3);
+    }
+
+    private static void verify(BPlusTree tree, TreeMap<String, byte[]> expected) {
+        check(tree.size() == expected.size(), "size " + tree.size() + " != " + expected.size());
+        for (var e : expected.entrySet()) {
+            check(Arrays.equals(tree.get(e.getKey()), e.getValue()), "wrong value for " + e.getKey());
+        }
+        List<String> scanned = new ArrayList<>();
+        tree.forEach((k, v) -> scanned.add(k));
+        check(scanned.equals(new ArrayList<>(expected.keySet())), "forEach order differs from key order");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
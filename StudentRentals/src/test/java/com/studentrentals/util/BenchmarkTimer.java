@@ -0,0 +1,38 @@
+package com.studentrentals.util;
+
+// Timing loop shared by the benchmark mains: half a second of warm-up, then the best of five passes of
+// about 200 ms each. It is not a JMH harness (one JVM, no forking, results only summed into a sink), so
+// read the numbers as ratios between variants measured in the same run, not as absolutes.
+public final class BenchmarkTimer {
+    private BenchmarkTimer() {}
+
+    // One batch of work; the results are summed so the JIT cannot drop the work
+    public interface Batch {
+        int run() throws Exception;
+    }
+
+    // Best time per operation in ns, where each run of the batch performs opsPerBatch operations
+    public static double nsPerOp(int opsPerBatch, Batch batch) {
+        try {
+            long sink = 0;
+            long warmUpEnd = System.nanoTime() + 500_000_000L;
+            while (System.nanoTime() < warmUpEnd) sink += batch.run();
+            double best = Double.MAX_VALUE;
+            for (int pass = 0; pass < 5; pass++) {
+                int batches = 0;
+                long t0 = System.nanoTime();
+                long elapsed;
+                do {
+                    sink += batch.run();
+                    batches++;
+                    elapsed = System.nanoTime() - t0;
+                } while (elapsed < 200_000_000L);
+                best = Math.min(best, (double) elapsed / batches / opsPerBatch);
+            }
+            if (sink == 42) System.out.print("");
+            return best;
+        } catch (Exception e) {
+            throw new IllegalStateException("Benchmark batch failed", e);
+        }
+    }
+}
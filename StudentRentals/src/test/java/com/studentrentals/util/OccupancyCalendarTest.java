@@ -0,0 +1,57 @@
+package com.studentrentals.util;
+
+import java.time.LocalDate;
+
+// Run with: java com.studentrentals.util.OccupancyCalendarTest (exits non-zero on the first failure)
+public class OccupancyCalendarTest {
+
+    public static void main(String[] args) {
+        shrinkThenWidenKeepsBooking();
+        bookingBeforeWindowShowsAfterWidening();
+        resizeKeepsBookingsInsideBothWindows();
+        System.out.println("OccupancyCalendarTest passed");
+    }
+
+    private static void shrinkThenWidenKeepsBooking() {
+        OccupancyCalendar calendar = new OccupancyCalendar(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31));
+        calendar.markBooked(day(2026, 9, 1), day(2026, 9, 30));
+
+        calendar.resize(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 6, 30));
+        check(calendar.isFree(day(2026, 1, 1), day(2026, 6, 30)), "shrunk window should be free");
+
+        calendar.resize(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31));
+        check(!calendar.isFree(day(2026, 9, 10), day(2026, 9, 12)), "booking lost after re-widening");
+        check(!calendar.isFree(day(2026, 8, 25), day(2026, 9, 1)), "first booked day lost");
+        check(!calendar.isFree(day(2026, 9, 30), day(2026, 10, 5)), "last booked day lost");
+        check(calendar.isFree(day(2026, 10, 1), day(2026, 12, 31)), "days after the booking should be free");
+    }
+
+    private static void bookingBeforeWindowShowsAfterWidening() {
+        OccupancyCalendar calendar = new OccupancyCalendar(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 6, 30));
+        calendar.markBooked(day(2026, 1, 10), day(2026, 3, 5));
+        check(!calendar.isFree(day(2026, 3, 1), day(2026, 3, 5)), "clipped part should be booked");
+
+        calendar.resize(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 6, 30));
+        check(!calendar.isFree(day(2026, 1, 10), day(2026, 1, 10)), "clipped-away days should come back");
+        check(calendar.isFree(day(2026, 1, 1), day(2026, 1, 9)), "days before the booking should be free");
+    }
+
+    private static void resizeKeepsBookingsInsideBothWindows() {
+        OccupancyCalendar calendar = new OccupancyCalendar(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31));
+        calendar.markBooked(day(2026, 2, 1), day(2026, 2, 3));
+        calendar.markBooked(day(2026, 7, 1), day(2026, 7, 31));
+
+        calendar.resize(LocalDate.of(2026, 1, 15), LocalDate.of(2027, 3, 31));
+        check(!calendar.isFree(day(2026, 2, 2), day(2026, 2, 2)), "February booking lost");
+        check(!calendar.isFree(day(2026, 7, 15), day(2026, 7, 15)), "July booking lost");
+        check(calendar.isFree(day(2027, 1, 1), day(2027, 3, 31)), "new days should be free");
+    }
+
+    private static int day(int year, int month, int dayOfMonth) {
+        return (int) LocalDate.of(year, month, dayOfMonth).toEpochDay();
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}